@@ -0,0 +1,114 @@
+#!/usr/bin/env bash
+# Measure the startup time of the service, from launch to the first successful /actuator/health, against an in-memory H2 database.
+# Three variants are compared: the default startup, lazy initialization, and the fast start (lazy initialization, Spring AOT and
+# class-data sharing archive). The report is written to target/startup-report.md.
+#
+# Build first with: mvn -B -Pfast-start package -DskipTests
+# Usage: scripts/startup-report.sh [runs]
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${STARTUP_PORT:-18080}"
+TIMEOUT_SECONDS="${STARTUP_TIMEOUT_SECONDS:-120}"
+
+cd "$(dirname "$0")/.."
+TARGET="target"
+FAST_START="$TARGET/fast-start"
+REPORT="$TARGET/startup-report.md"
+
+FAT_JAR="$(ls "$TARGET"/*.jar | head -n 1)"
+if [ ! -f "$FAT_JAR.original" ] || [ ! -d "$FAST_START/lib" ]; then
+  echo "Run mvn -B -Pfast-start package -DskipTests first" >&2
+  exit 1
+fi
+
+# The class-data sharing archive requires a classpath of plain jars, not the nested jars of the Spring Boot launcher.
+# The dependencies are ordered as in the executable jar, since some classes are provided by several jars.
+cp "$FAT_JAR.original" "$FAST_START/app.jar"
+CLASSPATH="$FAST_START/app.jar"
+while read -r entry; do
+  CLASSPATH="$CLASSPATH:$FAST_START/lib/$(basename "$entry")"
+done < <(unzip -p "$FAT_JAR" BOOT-INF/classpath.idx | sed -e 's/^- "//' -e 's/"$//')
+CLASSPATH="$CLASSPATH:$(ls "$FAST_START"/h2/*.jar | tr '\n' ':' | sed 's/:$//')"
+
+# The config server, the registry, the issuer and the tracing collector are not reachable, the service starts without them.
+# They are not disabled, since the conditions on their properties are evaluated at build time by Spring AOT.
+export CONFIG_SERVER_URI="http://localhost:1"
+APP_ARGS=(
+  "--server.port=$PORT"
+  "--eureka.client.service-url.defaultZone=http://localhost:1/eureka/"
+  "--spring.datasource.url=jdbc:h2:mem:startup;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"
+  "--spring.datasource.driver-class-name=org.h2.Driver"
+  "--spring.datasource.username=sa"
+  "--spring.datasource.password="
+  "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+  "--spring.jpa.hibernate.ddl-auto=create"
+  "--spring.security.oauth2.resourceserver.jwt.issuer-uri=http://localhost:1/issuer"
+  "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=http://localhost:1/jwks"
+  "--experience.tracing.otlp.endpoint=http://localhost:1/v1/traces"
+)
+
+# Start the service, wait for its first successful health check, and print the elapsed milliseconds.
+# Arguments: JVM options of the variant
+start_and_measure() {
+  local start end pid
+  start=$(date +%s%N)
+  java "$@" -cp "$CLASSPATH" fr.polytech.App "${APP_ARGS[@]}" > "$TARGET/startup.log" 2>&1 &
+  pid=$!
+  while ! curl -sf -o /dev/null "http://localhost:$PORT/actuator/health"; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "The service stopped before being healthy, see $TARGET/startup.log" >&2
+      exit 1
+    fi
+    if [ $(( ($(date +%s%N) - start) / 1000000000 )) -ge "$TIMEOUT_SECONDS" ]; then
+      kill "$pid"
+      echo "The service was not healthy after $TIMEOUT_SECONDS seconds, see $TARGET/startup.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  end=$(date +%s%N)
+  # The archive is dumped when the JVM exits, which SIGTERM triggers after the graceful shutdown
+  kill -TERM "$pid"
+  wait "$pid" || true
+  echo $(( (end - start) / 1000000 ))
+}
+
+# Print the median of the startup times of a variant.
+# Arguments: JVM options of the variant
+median_startup() {
+  local times=()
+  for _ in $(seq "$RUNS"); do
+    times+=("$(start_and_measure "$@")")
+  done
+  printf '%s\n' "${times[@]}" | sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+# Training run: the classes loaded until the service is healthy are dumped to the archive
+ARCHIVE="$FAST_START/app.jsa"
+rm -f "$ARCHIVE"
+FAST_START_OPTS=(-Dspring.profiles.active=fast-start -Dspring.aot.enabled=true)
+echo "Training run for the class-data sharing archive"
+start_and_measure "${FAST_START_OPTS[@]}" "-XX:ArchiveClassesAtExit=$ARCHIVE" > /dev/null
+
+echo "Measuring the default startup"
+BASELINE=$(median_startup)
+echo "Measuring the lazy initialization"
+LAZY=$(median_startup -Dspring.profiles.active=fast-start)
+echo "Measuring the fast start"
+FAST=$(median_startup "${FAST_START_OPTS[@]}" "-XX:SharedArchiveFile=$ARCHIVE")
+
+cat > "$REPORT" << EOF
+# Startup report
+
+Time from launch to the first successful \`/actuator/health\`, median of $RUNS runs, H2 in-memory database.
+
+| Variant | JVM options | Startup (ms) |
+|---|---|---|
+| Default | | $BASELINE |
+| Lazy initialization | \`-Dspring.profiles.active=fast-start\` | $LAZY |
+| Fast start | \`${FAST_START_OPTS[*]} -XX:SharedArchiveFile=app.jsa\` | $FAST |
+
+Java: $(java -version 2>&1 | head -n 1)
+EOF
+cat "$REPORT"
@@ -0,0 +1,156 @@
+package fr.polytech.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import fr.polytech.model.CompanyDTO;
+import fr.polytech.model.DetailedExperienceDTO;
+import fr.polytech.model.JobCategoryDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the Jackson serialization of detailed experiences, alone and as a list.
+ * The WithDates benchmarks serialize the same experiences with java.util.Date fields, as before the move to LocalDate,
+ * run them with -prof gc to compare the allocations per experience (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DetailedExperienceSerializationBenchmark {
+
+    /**
+     * Configured like the ObjectMapper of Spring Boot, which writes the dates as ISO strings.
+     */
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private DetailedExperienceDTO detailedExperience;
+
+    private List<DetailedExperienceDTO> detailedExperiences;
+
+    private DetailedExperienceWithDates detailedExperienceWithDates;
+
+    private List<DetailedExperienceWithDates> detailedExperiencesWithDates;
+
+    @Setup
+    public void setUp() {
+        detailedExperience = newDetailedExperience();
+        detailedExperienceWithDates = new DetailedExperienceWithDates(detailedExperience);
+        detailedExperiences = new ArrayList<>();
+        detailedExperiencesWithDates = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            DetailedExperienceDTO experience = newDetailedExperience();
+            detailedExperiences.add(experience);
+            detailedExperiencesWithDates.add(new DetailedExperienceWithDates(experience));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeOne() throws Exception {
+        return objectMapper.writeValueAsBytes(detailedExperience);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(detailedExperiences);
+    }
+
+    @Benchmark
+    public byte[] serializeOneWithDates() throws Exception {
+        return objectMapper.writeValueAsBytes(detailedExperienceWithDates);
+    }
+
+    @Benchmark
+    public byte[] serializeListWithDates() throws Exception {
+        return objectMapper.writeValueAsBytes(detailedExperiencesWithDates);
+    }
+
+    /**
+     * Create a detailed experience with all its attributes.
+     *
+     * @return DetailedExperienceDTO
+     */
+    static DetailedExperienceDTO newDetailedExperience() {
+        CompanyDTO company = new CompanyDTO();
+        company.setId(UUID.randomUUID());
+        company.setName("Company");
+        company.setLogoUrl("https://example.com/logo.png");
+        company.setDescription("Seasonal restaurant on the seaside");
+        company.setEmployeesNumberRange("10-49");
+        company.setAddressId(List.of(UUID.randomUUID()));
+        company.setSiretNumber("12345678900010");
+        company.setDocumentsUrl(List.of("https://example.com/document.pdf"));
+
+        JobCategoryDTO jobCategory = new JobCategoryDTO();
+        jobCategory.setId(UUID.randomUUID());
+        jobCategory.setName("Catering");
+
+        DetailedExperienceDTO detailedExperience = new DetailedExperienceDTO();
+        detailedExperience.setId(UUID.randomUUID());
+        detailedExperience.setJobTitle("Waiter");
+        detailedExperience.setStartDate(LocalDate.of(2023, 6, 1));
+        detailedExperience.setEndDate(LocalDate.of(2023, 8, 31));
+        detailedExperience.setCompany(company);
+        detailedExperience.setJobCategory(jobCategory);
+        return detailedExperience;
+    }
+
+    /**
+     * Detailed experience with java.util.Date fields, as serialized before the move to LocalDate.
+     */
+    public static class DetailedExperienceWithDates {
+        private final UUID id;
+        private final String jobTitle;
+        private final JobCategoryDTO jobCategory;
+        private final Date startDate;
+        private final Date endDate;
+        private final CompanyDTO company;
+
+        DetailedExperienceWithDates(DetailedExperienceDTO detailedExperience) {
+            id = detailedExperience.getId();
+            jobTitle = detailedExperience.getJobTitle();
+            jobCategory = detailedExperience.getJobCategory();
+            startDate = Date.from(detailedExperience.getStartDate().atStartOfDay().toInstant(ZoneOffset.UTC));
+            endDate = Date.from(detailedExperience.getEndDate().atStartOfDay().toInstant(ZoneOffset.UTC));
+            company = detailedExperience.getCompany();
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getJobTitle() {
+            return jobTitle;
+        }
+
+        public JobCategoryDTO getJobCategory() {
+            return jobCategory;
+        }
+
+        public Date getStartDate() {
+            return startDate;
+        }
+
+        public Date getEndDate() {
+            return endDate;
+        }
+
+        public CompanyDTO getCompany() {
+            return company;
+        }
+    }
+}
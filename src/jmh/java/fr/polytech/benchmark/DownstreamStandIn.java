@@ -0,0 +1,61 @@
+package fr.polytech.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP stand-in for a downstream API, answering every GET with the same JSON body after a fixed latency.
+ */
+public class DownstreamStandIn implements AutoCloseable {
+
+    private final HttpServer server;
+
+    /**
+     * Start a stand-in on a free port.
+     *
+     * @param json          Body of the responses, the id is taken from the last path segment
+     * @param latencyMillis Latency added to each response, in milliseconds
+     * @throws IOException if the server cannot be started
+     */
+    public DownstreamStandIn(String json, long latencyMillis) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            byte[] body = json.replace("{id}", path.substring(path.lastIndexOf('/') + 1)).getBytes(StandardCharsets.UTF_8);
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * Get the base URI of the stand-in.
+     *
+     * @return URI
+     */
+    public String getUri() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Stop the stand-in.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,130 @@
+package fr.polytech.benchmark;
+
+import fr.polytech.App;
+import fr.polytech.cache.LookupCache;
+import fr.polytech.model.*;
+import fr.polytech.service.ExperienceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ResolvableType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the read and write paths of ExperienceService against H2 in PostgreSQL mode,
+ * with the company and job category APIs replaced by local stand-ins.
+ * The COMPANY_API_URI and JOB_CATEGORY_API_URI environment variables are set by the benchmark Maven profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExperienceServiceBenchmark {
+
+    private static final String TOKEN = "Bearer benchmark";
+
+    @Param({"0", "20"})
+    public long downstreamLatencyMillis;
+
+    private DownstreamStandIn companyApi;
+
+    private DownstreamStandIn jobCategoryApi;
+
+    private ConfigurableApplicationContext context;
+
+    private ExperienceService experienceService;
+
+    private LookupCache<CompanyDTO> companyCache;
+
+    private LookupCache<JobCategoryDTO> jobCategoryCache;
+
+    private UUID experienceId;
+
+    @Setup
+    public void setUp() throws Exception {
+        companyApi = new DownstreamStandIn("{\"id\":\"{id}\",\"name\":\"Company\",\"description\":\"Description\",\"siretNumber\":\"12345678900010\"}", downstreamLatencyMillis);
+        jobCategoryApi = new DownstreamStandIn("{\"id\":\"{id}\",\"name\":\"Job category\"}", downstreamLatencyMillis);
+
+        context = new SpringApplicationBuilder(App.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--eureka.client.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--spring.cloud.discovery.client.simple.instances.company-api[0].uri=" + companyApi.getUri(),
+                        "--spring.cloud.discovery.client.simple.instances.job-category-api[0].uri=" + jobCategoryApi.getUri());
+        experienceService = context.getBean(ExperienceService.class);
+        companyCache = getCache(CompanyDTO.class);
+        jobCategoryCache = getCache(JobCategoryDTO.class);
+
+        experienceId = experienceService.createExperience(newExperience(null)).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        companyApi.close();
+        jobCategoryApi.close();
+    }
+
+    @Benchmark
+    public Experience getExperienceById() {
+        return experienceService.getExperienceById(experienceId);
+    }
+
+    @Benchmark
+    public Experience createExperience() {
+        return experienceService.createExperience(newExperience(null));
+    }
+
+    @Benchmark
+    public Experience updateExperience() {
+        return experienceService.updateExperience(newExperience(experienceId));
+    }
+
+    @Benchmark
+    public DetailedExperienceDTO getDetailedExperienceByIdCached() {
+        return experienceService.getDetailedExperienceById(experienceId, TOKEN);
+    }
+
+    @Benchmark
+    public DetailedExperienceDTO getDetailedExperienceByIdUncached() {
+        companyCache.invalidateAll();
+        jobCategoryCache.invalidateAll();
+        return experienceService.getDetailedExperienceById(experienceId, TOKEN);
+    }
+
+    /**
+     * Create an experience DTO with all its attributes.
+     *
+     * @param id Id of the experience
+     * @return ExperienceDTO
+     */
+    private static ExperienceDTO newExperience(UUID id) {
+        ExperienceDTO experience = new ExperienceDTO();
+        experience.setId(id);
+        experience.setJobTitle("Waiter");
+        experience.setCompanyId(UUID.randomUUID());
+        experience.setJobCategoryId(UUID.randomUUID());
+        experience.setStartDate(LocalDate.EPOCH);
+        experience.setEndDate(LocalDate.now());
+        return experience;
+    }
+
+    /**
+     * Get the cache of a downstream resource.
+     *
+     * @param type Type of the cached resources
+     * @param <V>  Type of the cached resources
+     * @return LookupCache
+     */
+    @SuppressWarnings("unchecked")
+    private <V> LookupCache<V> getCache(Class<V> type) {
+        return (LookupCache<V>) context.getBeanProvider(ResolvableType.forClassWithGenerics(LookupCache.class, type)).getObject();
+    }
+}
@@ -0,0 +1,71 @@
+package fr.polytech.benchmark;
+
+import fr.polytech.generator.TimeOrderedUuidGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compare the insert throughput of random and time-ordered UUID primary keys, on H2 in PostgreSQL mode.
+ * Each invocation inserts and commits one JDBC batch, the table grows during each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class IdStrategyInsertBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"RANDOM", "TIME_ORDERED"})
+    public String strategy;
+
+    private Supplier<UUID> idGenerator;
+
+    private Connection connection;
+
+    private PreparedStatement insert;
+
+    private Timestamp now;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws SQLException {
+        idGenerator = "RANDOM".equals(strategy) ? UUID::randomUUID : TimeOrderedUuidGenerator::next;
+        now = new Timestamp(System.currentTimeMillis());
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:insert" + System.nanoTime() + ";MODE=PostgreSQL", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE experience (id UUID PRIMARY KEY, company_id UUID, job_category_id UUID, job_title VARCHAR(255), start_date TIMESTAMP, end_date TIMESTAMP)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("INSERT INTO experience VALUES (?, ?, ?, ?, ?, ?)");
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws SQLException {
+        insert.close();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setObject(1, idGenerator.get());
+            insert.setObject(2, UUID.randomUUID());
+            insert.setObject(3, UUID.randomUUID());
+            insert.setString(4, "jobTitle");
+            insert.setTimestamp(5, now);
+            insert.setTimestamp(6, now);
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+}
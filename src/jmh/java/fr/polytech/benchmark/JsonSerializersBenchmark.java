@@ -0,0 +1,102 @@
+package fr.polytech.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import fr.polytech.config.VirtualThreads;
+import fr.polytech.json.ExperienceJsonModule;
+import fr.polytech.json.PooledJsonFactory;
+import fr.polytech.model.DetailedExperienceDTO;
+import fr.polytech.model.Experience;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the default reflective serializers of Jackson with the hand-written serializers and the pooled buffers.
+ * The default mapper is configured like the ObjectMapper of Spring Boot, the tuned one adds what JacksonConfig installs.
+ * The virtual thread benchmark serializes each experience on a new virtual thread, as a request does with experience.virtual-threads.enabled:
+ * run it with -prof gc to see the buffers allocated without the pool (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializersBenchmark {
+
+    @Param({"default", "tuned"})
+    public String mapper;
+
+    private ObjectMapper objectMapper;
+
+    private List<Experience> experiences;
+
+    private List<DetailedExperienceDTO> detailedExperiences;
+
+    private DetailedExperienceDTO detailedExperience;
+
+    private ExecutorService virtualThreadExecutor;
+
+    @Setup
+    public void setUp() {
+        JsonMapper.Builder builder = "tuned".equals(mapper) ? JsonMapper.builder(new PooledJsonFactory(64)).addModule(new ExperienceJsonModule()) : JsonMapper.builder();
+        objectMapper = builder
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        experiences = new ArrayList<>();
+        detailedExperiences = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            experiences.add(newExperience());
+            detailedExperiences.add(DetailedExperienceSerializationBenchmark.newDetailedExperience());
+        }
+        detailedExperience = DetailedExperienceSerializationBenchmark.newDetailedExperience();
+        virtualThreadExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        virtualThreadExecutor.shutdown();
+    }
+
+    @Benchmark
+    public byte[] serializeExperiences() throws Exception {
+        return objectMapper.writeValueAsBytes(experiences);
+    }
+
+    @Benchmark
+    public byte[] serializeDetailedExperiences() throws Exception {
+        return objectMapper.writeValueAsBytes(detailedExperiences);
+    }
+
+    @Benchmark
+    public byte[] serializeDetailedExperienceOnVirtualThread() throws Exception {
+        return virtualThreadExecutor.submit(() -> objectMapper.writeValueAsBytes(detailedExperience)).get();
+    }
+
+    /**
+     * Create an experience with all its attributes.
+     *
+     * @return Experience
+     */
+    private static Experience newExperience() {
+        Experience experience = new Experience();
+        experience.setId(UUID.randomUUID());
+        experience.setJobTitle("Waiter");
+        experience.setJobCategoryId(UUID.randomUUID());
+        experience.setStartDate(LocalDate.of(2023, 6, 1));
+        experience.setEndDate(LocalDate.of(2023, 8, 31));
+        experience.setCompanyId(UUID.randomUUID());
+        experience.setVersion(3L);
+        return experience;
+    }
+}
@@ -0,0 +1,121 @@
+package fr.polytech.benchmark;
+
+import fr.polytech.App;
+import fr.polytech.model.ExperienceDTO;
+import fr.polytech.service.ExperienceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of GET /detailed/{id} with slow downstream APIs, comparing the platform thread pool with virtual threads.
+ * 200 concurrent clients share a Tomcat limited to 50 platform threads, the sample time mode reports the p99 latency.
+ * The company and job category caches are disabled so that every request calls both downstream APIs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(200)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+
+    private static final int EXPERIENCES = 1000;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"100"})
+    public long downstreamLatencyMillis;
+
+    private DownstreamStandIn companyApi;
+
+    private DownstreamStandIn jobCategoryApi;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient httpClient;
+
+    private String baseUri;
+
+    private UUID[] experienceIds;
+
+    @Setup
+    public void setUp() throws Exception {
+        companyApi = new DownstreamStandIn("{\"id\":\"{id}\",\"name\":\"Company\"}", downstreamLatencyMillis);
+        jobCategoryApi = new DownstreamStandIn("{\"id\":\"{id}\",\"name\":\"Job category\"}", downstreamLatencyMillis);
+
+        context = new SpringApplicationBuilder(App.class)
+                .profiles("test")
+                .initializers(applicationContext -> ((GenericApplicationContext) applicationContext).registerBean(JwtDecoder.class,
+                        () -> token -> Jwt.withTokenValue(token).header("alg", "none").subject("benchmark").build()))
+                .run(
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=50",
+                        "--experience.virtual-threads.enabled=" + virtualThreads,
+                        "--experience.downstream.executor.pool-size=400",
+                        "--experience.downstream.timeout-ms=30000",
+                        "--experience.http-client.max-total=800",
+                        "--experience.http-client.max-per-route=400",
+                        "--experience.http-client.connection-request-timeout=30s",
+                        "--experience.cache.company.ttl=0s",
+                        "--experience.cache.company.negative-ttl=0s",
+                        "--experience.cache.job-category.ttl=0s",
+                        "--experience.cache.job-category.negative-ttl=0s",
+                        "--eureka.client.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--spring.cloud.discovery.client.simple.instances.company-api[0].uri=" + companyApi.getUri(),
+                        "--spring.cloud.discovery.client.simple.instances.job-category-api[0].uri=" + jobCategoryApi.getUri());
+        baseUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/experience/detailed/";
+
+        ExperienceService experienceService = context.getBean(ExperienceService.class);
+        experienceIds = new UUID[EXPERIENCES];
+        for (int i = 0; i < EXPERIENCES; i++) {
+            ExperienceDTO experience = new ExperienceDTO();
+            experience.setJobTitle("Waiter");
+            experience.setCompanyId(UUID.randomUUID());
+            experience.setJobCategoryId(UUID.randomUUID());
+            experience.setStartDate(LocalDate.EPOCH);
+            experience.setEndDate(LocalDate.now());
+            experienceIds[i] = experienceService.createExperience(experience).getId();
+        }
+
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        companyApi.close();
+        jobCategoryApi.close();
+    }
+
+    @Benchmark
+    public int getDetailedExperience() throws Exception {
+        UUID id = experienceIds[ThreadLocalRandom.current().nextInt(EXPERIENCES)];
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + id))
+                .header("Authorization", "Bearer benchmark")
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
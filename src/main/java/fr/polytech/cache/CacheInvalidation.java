@@ -0,0 +1,43 @@
+package fr.polytech.cache;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keys to evict from a cache on every replica.
+ *
+ * @param cache Name of the cache, null for every cache
+ * @param keys  Keys to evict, empty for every key of the cache
+ */
+public record CacheInvalidation(String cache, List<UUID> keys) {
+
+    /**
+     * Experiences, and the cached queries returning experiences.
+     */
+    public static final String EXPERIENCE = "experience";
+
+    /**
+     * Companies fetched from the company API.
+     */
+    public static final String COMPANY = "company";
+
+    /**
+     * Job categories fetched from the job category API.
+     */
+    public static final String JOB_CATEGORY = "job-category";
+
+    /**
+     * Invalidation of every key of every cache, when invalidations may have been missed.
+     */
+    public static final CacheInvalidation ALL = new CacheInvalidation(null, List.of());
+
+    /**
+     * Create an invalidation, copying the keys.
+     *
+     * @param cache Name of the cache, null for every cache
+     * @param keys  Keys to evict, empty for every key of the cache
+     */
+    public CacheInvalidation {
+        keys = List.copyOf(keys);
+    }
+}
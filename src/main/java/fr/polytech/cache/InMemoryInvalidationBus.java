@@ -0,0 +1,87 @@
+package fr.polytech.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation bus connecting replicas running in the same process, for tests and single replica deployments.
+ * As with the other buses, the invalidations are delivered to the other replicas of the group only.
+ */
+public class InMemoryInvalidationBus implements InvalidationBus {
+
+    private final List<InMemoryInvalidationBus> group;
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Create the bus of a single replica.
+     */
+    public InMemoryInvalidationBus() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    /**
+     * Create the bus of a replica joining a group.
+     *
+     * @param group Buses of the replicas of the group
+     */
+    private InMemoryInvalidationBus(List<InMemoryInvalidationBus> group) {
+        this.group = group;
+        group.add(this);
+    }
+
+    /**
+     * Create the bus of another replica, in the same group as this bus.
+     *
+     * @return InMemoryInvalidationBus of the new replica
+     */
+    public InMemoryInvalidationBus replica() {
+        return new InMemoryInvalidationBus(group);
+    }
+
+    /**
+     * Deliver an invalidation to the other replicas, after the commit of the current transaction if there is one.
+     *
+     * @param invalidation Invalidation to broadcast
+     */
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            broadcast(invalidation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                broadcast(invalidation);
+            }
+        });
+    }
+
+    /**
+     * Receive the invalidations of the other replicas.
+     *
+     * @param subscriber Consumer of the invalidations
+     */
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Deliver an invalidation to the subscribers of the other replicas.
+     *
+     * @param invalidation Invalidation to deliver
+     */
+    private void broadcast(CacheInvalidation invalidation) {
+        for (InMemoryInvalidationBus replica : group) {
+            if (replica != this) {
+                replica.subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+            }
+        }
+    }
+}
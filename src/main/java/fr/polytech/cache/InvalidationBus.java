@@ -0,0 +1,24 @@
+package fr.polytech.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Bus broadcasting the cache invalidations to the replicas of the service.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Broadcast an invalidation to the replicas.
+     * When called inside a transaction, the invalidation is only delivered if the transaction commits.
+     *
+     * @param invalidation Invalidation to broadcast
+     */
+    void publish(CacheInvalidation invalidation);
+
+    /**
+     * Receive the invalidations broadcast by the replicas.
+     *
+     * @param subscriber Consumer of the invalidations, called from the thread of the bus
+     */
+    void subscribe(Consumer<CacheInvalidation> subscriber);
+}
@@ -0,0 +1,229 @@
+package fr.polytech.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the resources fetched from the downstream APIs.
+ * Concurrent misses on the same key share a single upstream fetch, and 404 responses are cached for a shorter time.
+ * The last known value of each resource is kept for a longer time, and served when the downstream API fails.
+ *
+ * @param <V> Type of the cached resources
+ */
+public class LookupCache<V> {
+
+    private final AsyncCache<UUID, Optional<V>> cache;
+
+    private final Cache<UUID, V> staleCache;
+
+    private final Counter staleHits;
+
+    private final Duration waitTimeout;
+
+    /**
+     * Create a cache and register its metrics.
+     *
+     * @param name          Name of the cache, used as the metrics tag
+     * @param ttl           Time to live of the found resources
+     * @param negativeTtl   Time to live of the not found resources
+     * @param staleTtl      Time for which the last known value of a resource can be served when the downstream API fails, zero to disable
+     * @param maximumSize   Maximum number of cached resources
+     * @param waitTimeout   Maximum time to wait for the fetch of another thread
+     * @param meterRegistry Registry of the metrics
+     */
+    public LookupCache(String name, Duration ttl, Duration negativeTtl, Duration staleTtl, long maximumSize, Duration waitTimeout, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<UUID, Optional<V>>() {
+                    @Override
+                    public long expireAfterCreate(UUID key, Optional<V> value, long currentTime) {
+                        return (value.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID key, Optional<V> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID key, Optional<V> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), name);
+        this.staleCache = staleTtl.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(staleTtl)
+                .build();
+        this.staleHits = Counter.builder("cache.stale.hits")
+                .description("Failed fetches answered with the last known value")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Get a resource, fetching it if it is not cached.
+     * The fetch runs on the calling thread, other threads asking for the same key wait for its result, at most for the wait timeout.
+     *
+     * @param id      Id of the resource
+     * @param fetcher Fetches the resource from the downstream API
+     * @return Resource with the specified id
+     * @throws HttpClientErrorException if the resource is not found or if the fetch failed
+     */
+    public V get(UUID id, Supplier<V> fetcher) throws HttpClientErrorException {
+        CompletableFuture<Optional<V>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<V>> future = cache.get(id, (key, executor) -> pending);
+
+        if (future == pending) {
+            try {
+                pending.complete(Optional.ofNullable(remember(id, fetcher.get())));
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                    pending.complete(Optional.empty());
+                } else {
+                    // Failed futures are removed from the cache, the next call fetches again
+                    pending.completeExceptionally(e);
+                }
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+            } catch (Error e) {
+                // Release the threads waiting for this fetch before propagating the error
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return unwrap(future).orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Resource " + id + " not found"));
+        } catch (RuntimeException e) {
+            return staleOrThrow(id, e);
+        }
+    }
+
+    /**
+     * Get a resource without blocking, fetching it if it is not cached.
+     * Concurrent calls on the same key share the same pending fetch.
+     *
+     * @param id      Id of the resource
+     * @param fetcher Starts the fetch of the resource from the downstream API
+     * @return Resource with the specified id, completed with an HttpClientErrorException if it is not found or if the fetch failed
+     */
+    public CompletableFuture<V> getAsync(UUID id, Function<UUID, CompletableFuture<V>> fetcher) {
+        return cache.get(id, (key, executor) -> fetcher.apply(key)
+                        .thenApply(resource -> Optional.ofNullable(remember(id, resource)))
+                        .exceptionallyCompose(e -> {
+                            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                            if (cause instanceof HttpClientErrorException clientErrorException && clientErrorException.getStatusCode() == HttpStatus.NOT_FOUND) {
+                                return CompletableFuture.completedFuture(Optional.empty());
+                            }
+                            // Failed futures are removed from the cache, the next call fetches again
+                            return CompletableFuture.failedFuture(cause);
+                        }))
+                .thenApply(resource -> resource.orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Resource " + id + " not found")))
+                .exceptionally(e -> staleOrThrow(id, e));
+    }
+
+    /**
+     * Remove a resource from the cache.
+     *
+     * @param id Id of the resource
+     */
+    public void invalidate(UUID id) {
+        cache.synchronous().invalidate(id);
+        if (staleCache != null) {
+            staleCache.invalidate(id);
+        }
+    }
+
+    /**
+     * Remove all resources from the cache.
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+        if (staleCache != null) {
+            staleCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Keep a fetched resource as the last known value.
+     *
+     * @param id       Id of the resource
+     * @param resource Fetched resource, may be null
+     * @return Fetched resource
+     */
+    private V remember(UUID id, V resource) {
+        if (staleCache != null && resource != null) {
+            staleCache.put(id, resource);
+        }
+        return resource;
+    }
+
+    /**
+     * Serve the last known value of a resource when its fetch failed on the downstream side.
+     * Client errors, such as a resource not found, are always rethrown.
+     *
+     * @param id    Id of the resource
+     * @param error Error of the fetch
+     * @return Last known value of the resource
+     * @throws RuntimeException the error of the fetch if there is no last known value
+     */
+    private V staleOrThrow(UUID id, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        boolean clientError = cause instanceof HttpStatusCodeException statusCodeException && statusCodeException.getStatusCode().is4xxClientError();
+        V stale = staleCache == null || clientError ? null : staleCache.getIfPresent(id);
+        if (stale == null) {
+            throw cause instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(cause);
+        }
+        staleHits.increment();
+        return stale;
+    }
+
+    /**
+     * Wait for a pending fetch, at most for the wait timeout, and rethrow its error as is.
+     *
+     * @param future Pending fetch
+     * @return Fetched resource
+     * @throws HttpClientErrorException if the fetch failed or did not complete in time
+     */
+    private Optional<V> unwrap(CompletableFuture<Optional<V>> future) throws HttpClientErrorException {
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for a resource");
+        } catch (TimeoutException e) {
+            throw new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE, "Timed out waiting for a resource");
+        } catch (CancellationException e) {
+            throw new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE, "Resource fetch cancelled");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package fr.polytech.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Invalidation bus relying on the LISTEN/NOTIFY commands of Postgres.
+ * The invalidations are sent with pg_notify on the connection of the current transaction, so Postgres only delivers them once it commits.
+ * They are received on a dedicated connection, outside of the pool, and the invalidations sent by this replica are ignored.
+ * When the connection is lost, the invalidations sent in the meantime are lost too: every cache is invalidated once reconnected.
+ */
+public class PostgresInvalidationBus implements InvalidationBus, AutoCloseable {
+
+    /**
+     * Maximum number of keys in a notification, whose payload is limited to 8000 bytes.
+     */
+    static final int MAX_KEYS_PER_NOTIFICATION = 150;
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final String ALL_CACHES = "*";
+
+    private final Logger logger = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    private final String origin = UUID.randomUUID().toString();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String url;
+
+    private final String username;
+
+    private final String password;
+
+    private final String channel;
+
+    private final Duration pollTimeout;
+
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+
+    /**
+     * Create the bus, without listening yet.
+     *
+     * @param jdbcTemplate   JdbcTemplate sending the notifications
+     * @param url            JDBC URL of the listening connection
+     * @param username       User of the listening connection
+     * @param password       Password of the listening connection
+     * @param channel        Channel of the notifications
+     * @param pollTimeout    Maximum time to wait for notifications before checking that the bus is still running
+     * @param reconnectDelay Time to wait before reconnecting after an error
+     */
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate, String url, String username, String password, String channel, Duration pollTimeout, Duration reconnectDelay) {
+        if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid channel name: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    /**
+     * Start listening to the notifications, in a daemon thread.
+     */
+    public void start() {
+        running = true;
+        Thread listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    /**
+     * Stop listening to the notifications, within the poll timeout.
+     */
+    @Override
+    public void close() {
+        running = false;
+    }
+
+    /**
+     * Send an invalidation, in as many notifications as needed.
+     *
+     * @param invalidation Invalidation to broadcast
+     */
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        for (String payload : toPayloads(origin, invalidation)) {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+        }
+    }
+
+    /**
+     * Receive the invalidations sent by the other replicas.
+     *
+     * @param subscriber Consumer of the invalidations, called from the listening thread
+     */
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Listen to the notifications until the bus is closed, reconnecting after the errors.
+     */
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                logger.info("Listening to the cache invalidations on channel " + channel);
+                if (reconnecting) {
+                    dispatch(CacheInvalidation.ALL);
+                    reconnecting = false;
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Error while listening to the cache invalidations, reconnecting in " + reconnectDelay + ": " + e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Deliver the invalidation of a notification, unless it was sent by this replica.
+     * An invalid notification, such as a hand-written one with a malformed id, is logged and skipped without stopping the listener.
+     *
+     * @param payload Payload of the notification
+     */
+    void receive(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3) {
+            logger.warn("Ignoring invalid cache invalidation: " + payload);
+            return;
+        }
+        if (origin.equals(parts[0])) {
+            return;
+        }
+        CacheInvalidation invalidation;
+        try {
+            invalidation = fromPayload(parts[1], parts[2]);
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring invalid cache invalidation: " + payload + ": " + e.getMessage());
+            return;
+        }
+        dispatch(invalidation);
+    }
+
+    /**
+     * Deliver an invalidation to the subscribers.
+     *
+     * @param invalidation Invalidation to deliver
+     */
+    private void dispatch(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> subscriber : subscribers) {
+            try {
+                subscriber.accept(invalidation);
+            } catch (RuntimeException e) {
+                logger.error("Error while invalidating the cache " + invalidation.cache() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Encode an invalidation as notification payloads: origin|cache|key,key...
+     *
+     * @param origin       Replica sending the invalidation
+     * @param invalidation Invalidation to encode
+     * @return Payloads of the notifications
+     */
+    static List<String> toPayloads(String origin, CacheInvalidation invalidation) {
+        String prefix = origin + "|" + (invalidation.cache() == null ? ALL_CACHES : invalidation.cache()) + "|";
+        if (invalidation.keys().isEmpty()) {
+            return List.of(prefix);
+        }
+        List<String> payloads = new ArrayList<>();
+        for (int start = 0; start < invalidation.keys().size(); start += MAX_KEYS_PER_NOTIFICATION) {
+            StringBuilder payload = new StringBuilder(prefix);
+            for (UUID key : invalidation.keys().subList(start, Math.min(start + MAX_KEYS_PER_NOTIFICATION, invalidation.keys().size()))) {
+                if (payload.length() > prefix.length()) {
+                    payload.append(',');
+                }
+                payload.append(key);
+            }
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    /**
+     * Decode the invalidation of a notification payload.
+     *
+     * @param cache Cache part of the payload
+     * @param keys  Keys part of the payload
+     * @return CacheInvalidation
+     */
+    static CacheInvalidation fromPayload(String cache, String keys) {
+        List<UUID> ids = new ArrayList<>();
+        if (!keys.isEmpty()) {
+            for (String key : keys.split(",")) {
+                ids.add(UUID.fromString(key));
+            }
+        }
+        return new CacheInvalidation(ALL_CACHES.equals(cache) ? null : cache, ids);
+    }
+}
@@ -0,0 +1,141 @@
+package fr.polytech.config;
+
+import fr.polytech.cache.InMemoryInvalidationBus;
+import fr.polytech.cache.LookupCache;
+import fr.polytech.cache.PostgresInvalidationBus;
+import fr.polytech.model.CompanyDTO;
+import fr.polytech.model.JobCategoryDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Cache of the companies fetched from the company API.
+     *
+     * @param ttl           Time to live of the found companies
+     * @param negativeTtl   Time to live of the not found companies
+     * @param staleTtl      Time for which the last known companies are served when the API fails
+     * @param maximumSize   Maximum number of cached companies
+     * @param timeoutMillis Maximum time to wait for a company fetched by another thread, as long as a downstream call
+     * @param meterRegistry Registry of the cache metrics
+     * @return LookupCache of companies
+     */
+    @Bean
+    public LookupCache<CompanyDTO> companyCache(@Value("${experience.cache.company.ttl:10m}") Duration ttl,
+                                                @Value("${experience.cache.company.negative-ttl:30s}") Duration negativeTtl,
+                                                @Value("${experience.cache.company.stale-ttl:1h}") Duration staleTtl,
+                                                @Value("${experience.cache.company.maximum-size:10000}") long maximumSize,
+                                                @Value("${experience.downstream.timeout-ms:3000}") long timeoutMillis,
+                                                MeterRegistry meterRegistry) {
+        return new LookupCache<>("company", ttl, negativeTtl, staleTtl, maximumSize, Duration.ofMillis(timeoutMillis), meterRegistry);
+    }
+
+    /**
+     * Cache of the job categories fetched from the job category API.
+     *
+     * @param ttl           Time to live of the found job categories
+     * @param negativeTtl   Time to live of the not found job categories
+     * @param staleTtl      Time for which the last known job categories are served when the API fails
+     * @param maximumSize   Maximum number of cached job categories
+     * @param timeoutMillis Maximum time to wait for a job category fetched by another thread, as long as a downstream call
+     * @param meterRegistry Registry of the cache metrics
+     * @return LookupCache of job categories
+     */
+    @Bean
+    public LookupCache<JobCategoryDTO> jobCategoryCache(@Value("${experience.cache.job-category.ttl:1h}") Duration ttl,
+                                                        @Value("${experience.cache.job-category.negative-ttl:30s}") Duration negativeTtl,
+                                                        @Value("${experience.cache.job-category.stale-ttl:6h}") Duration staleTtl,
+                                                        @Value("${experience.cache.job-category.maximum-size:1000}") long maximumSize,
+                                                        @Value("${experience.downstream.timeout-ms:3000}") long timeoutMillis,
+                                                        MeterRegistry meterRegistry) {
+        return new LookupCache<>("job-category", ttl, negativeTtl, staleTtl, maximumSize, Duration.ofMillis(timeoutMillis), meterRegistry);
+    }
+
+    /**
+     * Invalidation bus relying on Postgres LISTEN/NOTIFY, so that a write on a replica evicts the cached entries of every replica.
+     * Selected by experience.cache.invalidation.bus=postgres, or by default when the datasource is PostgreSQL.
+     *
+     * @param jdbcTemplate         JdbcTemplate sending the notifications
+     * @param dataSourceProperties Properties of the database the notifications are listened to
+     * @param channel              Channel of the notifications
+     * @param pollTimeout          Maximum time to wait for notifications before checking that the bus is still running
+     * @param reconnectDelay       Time to wait before reconnecting after an error
+     * @return InvalidationBus
+     */
+    @Bean(destroyMethod = "close")
+    @Conditional(PostgresInvalidationBusCondition.class)
+    public PostgresInvalidationBus postgresInvalidationBus(JdbcTemplate jdbcTemplate,
+                                                           DataSourceProperties dataSourceProperties,
+                                                           @Value("${experience.cache.invalidation.channel:experience_cache_invalidation}") String channel,
+                                                           @Value("${experience.cache.invalidation.poll-timeout:500ms}") Duration pollTimeout,
+                                                           @Value("${experience.cache.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        PostgresInvalidationBus invalidationBus = new PostgresInvalidationBus(jdbcTemplate, dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(), channel, pollTimeout, reconnectDelay);
+        invalidationBus.start();
+        return invalidationBus;
+    }
+
+    /**
+     * Invalidation bus delivering the invalidations within the process, for tests and single replica deployments.
+     * Selected by experience.cache.invalidation.bus=memory, or by default when the datasource is not PostgreSQL,
+     * since pg_notify would then fail the transactions writing experiences.
+     *
+     * @return InvalidationBus
+     */
+    @Bean
+    @Conditional(InMemoryInvalidationBusCondition.class)
+    public InMemoryInvalidationBus inMemoryInvalidationBus() {
+        return new InMemoryInvalidationBus();
+    }
+
+    /**
+     * Get the invalidation bus to use: the one of experience.cache.invalidation.bus,
+     * or with auto, the default, postgres when the datasource is PostgreSQL and memory otherwise.
+     *
+     * @param environment Environment of the application
+     * @return Name of the invalidation bus
+     */
+    static String selectInvalidationBus(Environment environment) {
+        String bus = environment.getProperty("experience.cache.invalidation.bus", "auto");
+        if (!"auto".equals(bus)) {
+            return bus;
+        }
+        String url = environment.getProperty("spring.datasource.url", "");
+        return url.startsWith("jdbc:postgresql:") ? "postgres" : "memory";
+    }
+
+    /**
+     * Match when the Postgres invalidation bus is selected.
+     */
+    static class PostgresInvalidationBusCondition implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return "postgres".equals(selectInvalidationBus(context.getEnvironment()));
+        }
+    }
+
+    /**
+     * Match when the in-memory invalidation bus is selected.
+     */
+    static class InMemoryInvalidationBusCondition implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return "memory".equals(selectInvalidationBus(context.getEnvironment()));
+        }
+    }
+}
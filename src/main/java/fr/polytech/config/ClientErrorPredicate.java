@@ -0,0 +1,21 @@
+package fr.polytech.config;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.util.function.Predicate;
+
+/**
+ * Errors that do not tell anything about the health of a downstream API, ignored by the circuit breakers:
+ * 4xx responses, whatever exception carries them, and calls rejected by the local bulkhead.
+ */
+public class ClientErrorPredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        if (throwable instanceof HttpStatusCodeException statusCodeException) {
+            return statusCodeException.getStatusCode().is4xxClientError();
+        }
+        return throwable instanceof BulkheadFullException;
+    }
+}
@@ -0,0 +1,77 @@
+package fr.polytech.config;
+
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * URI template parsed once, such as http://company-api/api/v1/company/{id}.
+ * Expanding it only concatenates the literal parts and the encoded variables, positionally.
+ */
+public final class CompiledUriTemplate {
+
+    private final String template;
+
+    private final String[] literals;
+
+    private final String[] variables;
+
+    private final int literalsLength;
+
+    /**
+     * Parse a URI template.
+     *
+     * @param template URI template, with variables between braces
+     * @throws IllegalArgumentException if a brace is not closed
+     */
+    public CompiledUriTemplate(String template) {
+        List<String> literalList = new ArrayList<>();
+        List<String> variableList = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = template.indexOf('{', start)) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed variable in URI template " + template);
+            }
+            literalList.add(template.substring(start, open));
+            variableList.add(template.substring(open + 1, close));
+            start = close + 1;
+        }
+        literalList.add(template.substring(start));
+
+        this.template = template;
+        this.literals = literalList.toArray(new String[0]);
+        this.variables = variableList.toArray(new String[0]);
+        this.literalsLength = literalList.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * Expand the template.
+     * UUIDs are appended as is, the other values are encoded as path segments.
+     *
+     * @param values Values of the variables, in the order of the template
+     * @return Expanded URI
+     * @throws IllegalArgumentException if the number of values does not match the variables
+     */
+    public String expand(Object... values) {
+        if (values.length != variables.length) {
+            throw new IllegalArgumentException("Expected " + variables.length + " values for URI template " + template + ", got " + values.length);
+        }
+        StringBuilder uri = new StringBuilder(literalsLength + 36 * values.length);
+        for (int i = 0; i < values.length; i++) {
+            uri.append(literals[i]);
+            Object value = values[i];
+            uri.append(value instanceof UUID ? value.toString() : UriUtils.encodePathSegment(String.valueOf(value), StandardCharsets.UTF_8));
+        }
+        return uri.append(literals[values.length]).toString();
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
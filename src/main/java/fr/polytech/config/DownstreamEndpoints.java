@@ -0,0 +1,86 @@
+package fr.polytech.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the downstream APIs, bound from experience.downstream.endpoints.&lt;name&gt;.*.
+ * The registry is bound again when the configuration is refreshed, the callers look the endpoints up on each call to see the new values.
+ */
+@Component
+@ConfigurationProperties(prefix = "experience.downstream")
+public class DownstreamEndpoints {
+
+    /**
+     * Settings of the downstream APIs without an entry, such as the ones only used in tests.
+     */
+    private static final DownstreamEndpoint DEFAULT_ENDPOINT = new DownstreamEndpoint();
+
+    private final Map<String, DownstreamEndpoint> endpoints = new ConcurrentHashMap<>();
+
+    public Map<String, DownstreamEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Get a downstream API.
+     *
+     * @param name Name of the downstream API
+     * @return Settings of the downstream API, the default settings if it is not configured
+     */
+    public DownstreamEndpoint get(String name) {
+        return endpoints.getOrDefault(name, DEFAULT_ENDPOINT);
+    }
+
+    public static class DownstreamEndpoint {
+
+        private CompiledUriTemplate uri;
+
+        private Duration timeout;
+
+        private int retries;
+
+        /**
+         * Set the URI template of the resources, parsed once here instead of on each call.
+         *
+         * @param uri URI template, such as http://company-api/api/v1/company/{id}
+         */
+        public void setUri(String uri) {
+            this.uri = new CompiledUriTemplate(uri);
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getRetries() {
+            return retries;
+        }
+
+        public void setRetries(int retries) {
+            this.retries = retries;
+        }
+
+        /**
+         * Build the URI of a resource.
+         *
+         * @param values Values of the variables of the URI template
+         * @return URI of the resource
+         * @throws IllegalStateException if the endpoint has no URI
+         */
+        public String uri(Object... values) {
+            if (uri == null) {
+                throw new IllegalStateException("No URI configured for this downstream API");
+            }
+            return uri.expand(values);
+        }
+    }
+}
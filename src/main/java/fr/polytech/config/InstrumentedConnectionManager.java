@@ -0,0 +1,71 @@
+package fr.polytech.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pooling connection manager recording how long the callers wait to lease a connection.
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Create a connection manager.
+     *
+     * @param meterRegistry Registry of the lease wait time metric
+     */
+    public InstrumentedConnectionManager(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Lease a connection, recording the wait time per target host.
+     *
+     * @param id             Id of the exchange
+     * @param route          Route to the target host
+     * @param requestTimeout Maximum time to wait for a connection
+     * @param state          Expected state of the connection
+     * @return LeaseRequest
+     */
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest leaseRequest = super.lease(id, route, requestTimeout, state);
+        // Build the timer once per target host instead of on every lease
+        Timer timer = timers.computeIfAbsent(route.getTargetHost().getHostName(), host -> Timer.builder("httpcomponents.httpclient.pool.lease")
+                .description("Time spent waiting for a pooled connection")
+                .tag("httpclient", "downstream")
+                .tag("target.host", host)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout) throws InterruptedException, ExecutionException, TimeoutException {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    return leaseRequest.get(timeout);
+                } finally {
+                    sample.stop(timer);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return leaseRequest.cancel();
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package fr.polytech.config;
+
+import com.fasterxml.jackson.databind.Module;
+import fr.polytech.json.ExperienceJsonModule;
+import fr.polytech.json.PooledJsonFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    private final Logger logger = LoggerFactory.getLogger(JacksonConfig.class);
+
+    /**
+     * Serialize the experiences with hand-written serializers, registered by Spring Boot in its ObjectMapper.
+     *
+     * @return Module of the serializers
+     */
+    @Bean
+    @ConditionalOnProperty(name = "experience.json.serializers.enabled", havingValue = "true", matchIfMissing = true)
+    public Module experienceJsonModule() {
+        logger.info("Serializing the experiences with the hand-written serializers");
+        return new ExperienceJsonModule();
+    }
+
+    /**
+     * Take the JSON buffers from a pool shared by all the threads, instead of one set of buffers per thread.
+     *
+     * @param poolSize Number of recyclers in the pool
+     * @return Jackson2ObjectMapperBuilderCustomizer setting the factory
+     */
+    @Bean
+    @ConditionalOnProperty(name = "experience.json.buffer-pool.enabled", havingValue = "true", matchIfMissing = true)
+    public Jackson2ObjectMapperBuilderCustomizer pooledJsonFactoryCustomizer(@Value("${experience.json.buffer-pool.size:64}") int poolSize) {
+        logger.info("Pooling the JSON buffers in " + poolSize + " recyclers");
+        return builder -> builder.factory(new PooledJsonFactory(poolSize));
+    }
+}
@@ -0,0 +1,129 @@
+package fr.polytech.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class JwkConfig {
+
+    private final Logger logger = LoggerFactory.getLogger(JwkConfig.class);
+
+    /**
+     * Keys of the issuer, cached locally.
+     * The cached keys are refreshed in the background before they expire, and fetched again once when a token is signed by an unknown key,
+     * at most once per rate limit interval. The JWK set can also be read from a local file, such as file:/path/jwks.json or classpath:jwks.json.
+     *
+     * @param jwkSetUri      URI of the JWK set of the issuer
+     * @param ttl            Time to live of the cached keys
+     * @param refreshAhead   Time before the expiration of the cached keys at which they are refreshed in the background
+     * @param refreshTimeout Maximum time to wait for a refresh
+     * @param rateLimit      Minimum time between two fetches of the JWK set
+     * @param connectTimeout Connect timeout of the JWK set requests
+     * @param readTimeout    Read timeout of the JWK set requests
+     * @param resourceLoader Loader of the local JWK sets
+     * @return JWKSource
+     * @throws IOException if the URI of the JWK set is not valid
+     */
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(@Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+                                                @Value("${experience.security.jwk.ttl:15m}") Duration ttl,
+                                                @Value("${experience.security.jwk.refresh-ahead:1m}") Duration refreshAhead,
+                                                @Value("${experience.security.jwk.refresh-timeout:5s}") Duration refreshTimeout,
+                                                @Value("${experience.security.jwk.rate-limit:30s}") Duration rateLimit,
+                                                @Value("${experience.security.jwk.connect-timeout:2s}") Duration connectTimeout,
+                                                @Value("${experience.security.jwk.read-timeout:2s}") Duration readTimeout,
+                                                ResourceLoader resourceLoader) throws IOException {
+        URL jwkSetUrl;
+        ResourceRetriever retriever;
+        if (jwkSetUri.startsWith("http:") || jwkSetUri.startsWith("https:")) {
+            jwkSetUrl = new URL(jwkSetUri);
+            retriever = new DefaultResourceRetriever((int) connectTimeout.toMillis(), (int) readTimeout.toMillis(), JWKSourceBuilder.DEFAULT_HTTP_SIZE_LIMIT);
+        } else {
+            jwkSetUrl = resourceLoader.getResource(jwkSetUri).getURL();
+            retriever = url -> {
+                try (InputStream inputStream = url.openStream()) {
+                    return new Resource(StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8), "application/json");
+                }
+            };
+        }
+        logger.info("Caching the keys of " + jwkSetUrl + " for " + ttl);
+
+        return JWKSourceBuilder.create(jwkSetUrl, retriever)
+                .cache(ttl.toMillis(), refreshTimeout.toMillis())
+                .refreshAheadCache(refreshAhead.toMillis(), true)
+                .rateLimited(rateLimit.toMillis())
+                .build();
+    }
+
+    /**
+     * Decoder of the access tokens, verifying their signature with the cached keys.
+     * The claims are validated as by the default Spring Boot decoder: timestamps, and issuer when configured.
+     *
+     * @param jwkSource Keys of the issuer
+     * @param issuerUri Issuer of the tokens, empty to accept any issuer
+     * @return JwtDecoder
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource,
+                                 @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri:}") String issuerUri) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // The claims are validated by the Spring Security validators below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        jwtDecoder.setJwtValidator(issuerUri.isEmpty() ? JwtValidators.createDefault() : JwtValidators.createDefaultWithIssuer(issuerUri));
+        return jwtDecoder;
+    }
+
+    /**
+     * Fetch the keys of the issuer before the first request, so that it does not wait for them.
+     * A failure does not prevent the startup, the keys are fetched again by the first request.
+     *
+     * @param jwkSource Keys of the issuer
+     * @return ApplicationRunner preloading the keys
+     */
+    @Bean
+    @ConditionalOnProperty(name = "experience.security.jwk.preload", havingValue = "true", matchIfMissing = true)
+    public ApplicationRunner jwkSetPreloader(JWKSource<SecurityContext> jwkSource) {
+        return args -> {
+            try {
+                List<JWK> keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+                logger.info("Preloaded " + keys.size() + " keys of the issuer");
+            } catch (KeySourceException e) {
+                logger.warn("Error while preloading the keys of the issuer: " + e.getMessage());
+            }
+        };
+    }
+}
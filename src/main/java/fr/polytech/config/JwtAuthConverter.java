@@ -1,5 +1,13 @@
 package fr.polytech.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
@@ -10,44 +18,125 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.stereotype.Component;
 
-import java.util.Collection;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
 
 @Component
 public class JwtAuthConverter implements Converter<Jwt, AbstractAuthenticationToken> {
 
     private final JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter;
 
-    public JwtAuthConverter() {
+    private final String principleAttribute;
+
+    private final String resourceId;
+
+    private final Duration defaultTtl;
+
+    /**
+     * Authorities and principal name of the tokens already seen, until the tokens expire.
+     */
+    private final Cache<String, CachedAuthentication> authentications;
+
+    /**
+     * Create the converter and its cache of authorities.
+     *
+     * @param principleAttribute Claim holding the name of the principal
+     * @param resourceId         Client whose roles are read from the resource_access claim
+     * @param maximumSize        Maximum number of cached tokens
+     * @param defaultTtl         Time to live of the tokens without expiration time
+     * @param meterRegistry      Registry of the cache metrics
+     */
+    @Autowired
+    public JwtAuthConverter(@Value("${PRINCIPLE_ATTRIBUTE_NAME:}") String principleAttribute,
+                            @Value("${RESOURCE_ID:}") String resourceId,
+                            @Value("${experience.security.authorities-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${experience.security.authorities-cache.default-ttl:5m}") Duration defaultTtl,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
         this.jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-    }
+        this.principleAttribute = principleAttribute;
+        this.resourceId = resourceId;
+        this.defaultTtl = defaultTtl;
+        this.authentications = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, CachedAuthentication>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+                    }
 
-    private final String principleAttribute = System.getenv("PRINCIPLE_ATTRIBUTE_NAME");
-    private final String resourceId = System.getenv("RESOURCE_ID");
+                    @Override
+                    public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, authentications, "jwt-authorities"));
+    }
 
     /**
      * Convert a Jwt to an AbstractAuthenticationToken
+     * The authorities and the principal name of a token are computed once, and reused until the token expires.
      *
      * @param jwt Jwt to convert
      * @return AbstractAuthenticationToken
      */
     @Override
     public AbstractAuthenticationToken convert(@NonNull Jwt jwt) {
-        Collection<GrantedAuthority> authorities = Stream.concat(
-                jwtGrantedAuthoritiesConverter.convert(jwt).stream(),
-                extractResourceRoles(jwt).stream()
-        ).collect(Collectors.toSet());
+        CachedAuthentication authentication = authentications.get(cacheKey(jwt), key -> authenticate(jwt));
 
         return new JwtAuthenticationToken(
                 jwt,
-                authorities,
-                getPrincipleClaimName(jwt)
+                authentication.authorities(),
+                authentication.principalName()
         );
     }
 
+    /**
+     * Compute the authorities and the principal name of a Jwt.
+     *
+     * @param jwt Jwt to read
+     * @return CachedAuthentication
+     */
+    private CachedAuthentication authenticate(Jwt jwt) {
+        Collection<GrantedAuthority> jwtAuthorities = jwtGrantedAuthoritiesConverter.convert(jwt);
+        Collection<? extends GrantedAuthority> resourceRoles = extractResourceRoles(jwt);
+        Set<GrantedAuthority> authorities = new HashSet<>(jwtAuthorities.size() + resourceRoles.size());
+        authorities.addAll(jwtAuthorities);
+        authorities.addAll(resourceRoles);
+
+        Instant expiresAt = jwt.getExpiresAt() != null ? jwt.getExpiresAt() : Instant.now().plus(defaultTtl);
+        return new CachedAuthentication(Collections.unmodifiableSet(authorities), getPrincipleClaimName(jwt), expiresAt);
+    }
+
+    /**
+     * Get the key of a Jwt in the cache.
+     * The Jwt has been validated before being converted, so its id identifies its claims. Tokens without id are keyed by their digest.
+     *
+     * @param jwt Jwt
+     * @return Key of the Jwt
+     */
+    private static String cacheKey(Jwt jwt) {
+        if (jwt.getId() != null) {
+            return jwt.getIssuer() + "#" + jwt.getId();
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jwt.getTokenValue().getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     /**
      * Get the name of the principle from the Jwt
      *
@@ -79,9 +168,20 @@ public class JwtAuthConverter implements Converter<Jwt, AbstractAuthenticationTo
         resource = (Map<String, Object>) resourceAccess.get(resourceId);
 
         resourceRoles = (Collection<String>) resource.get("roles");
-        return resourceRoles
-                .stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .collect(Collectors.toSet());
+        Set<GrantedAuthority> authorities = new HashSet<>(resourceRoles.size());
+        for (String role : resourceRoles) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+        return authorities;
+    }
+
+    /**
+     * Authorities and principal name computed from a token.
+     *
+     * @param authorities   Authorities of the token
+     * @param principalName Name of the principal
+     * @param expiresAt     Expiration time of the token
+     */
+    private record CachedAuthentication(Collection<GrantedAuthority> authorities, String principalName, Instant expiresAt) {
     }
-}
\ No newline at end of file
+}
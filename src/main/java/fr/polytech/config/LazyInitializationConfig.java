@@ -0,0 +1,28 @@
+package fr.polytech.config;
+
+import com.nimbusds.jose.jwk.source.JWKSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.web.SecurityFilterChain;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class LazyInitializationConfig {
+
+    /**
+     * Beans created at startup even when the lazy initialization is enabled (fast-start profile).
+     * Every request goes through the security filter chain and the token decoder, and most of them through the database,
+     * so creating them on first use would only move their cost to the first request and delay the detection of a misconfiguration.
+     *
+     * @return LazyInitializationExcludeFilter of the critical beans
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter criticalBeansExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(SecurityFilterChain.class, JwtDecoder.class, JWKSource.class,
+                DataSource.class, EntityManagerFactory.class);
+    }
+}
@@ -0,0 +1,53 @@
+package fr.polytech.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.util.function.Predicate;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Time the methods annotated with @Timed.
+     * Reactive methods are skipped: the aspect would only time the assembly of the pipeline, they are timed on completion instead.
+     *
+     * @param meterRegistry Registry of the timers
+     * @return TimedAspect
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        Predicate<ProceedingJoinPoint> reactive = joinPoint -> joinPoint.getSignature() instanceof MethodSignature signature
+                && Publisher.class.isAssignableFrom(signature.getReturnType());
+        return new TimedAspect(meterRegistry, reactive);
+    }
+
+    /**
+     * Count the rows returned or modified by each repository method.
+     * The time spent in each method is already published by Spring Boot as spring.data.repository.invocations.
+     *
+     * @param meterRegistry Registry of the row counts, resolved on the first invocation
+     * @return BeanPostProcessor adding the row counter to the repository factories
+     */
+    @Bean
+    public static BeanPostProcessor repositoryRowsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RepositoryRowsInterceptor(repositoryInformation.getRepositoryInterface(), meterRegistry))));
+                }
+                return bean;
+            }
+        };
+    }
+}
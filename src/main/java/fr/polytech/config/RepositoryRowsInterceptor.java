@@ -0,0 +1,73 @@
+package fr.polytech.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Record the number of rows returned or modified by each repository method, as experience.repository.rows.
+ * Streams are counted as they are consumed and recorded when they are closed.
+ */
+public class RepositoryRowsInterceptor implements MethodInterceptor {
+
+    private final Class<?> repositoryInterface;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final ConcurrentMap<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Create the interceptor.
+     *
+     * @param repositoryInterface Interface of the intercepted repository
+     * @param meterRegistry       Registry of the row counts
+     */
+    public RepositoryRowsInterceptor(Class<?> repositoryInterface, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.repositoryInterface = repositoryInterface;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (result == null) {
+            return null;
+        }
+
+        DistributionSummary summary = summaries.computeIfAbsent(invocation.getMethod(), method -> DistributionSummary.builder("experience.repository.rows")
+                .description("Rows returned or modified by the repository methods")
+                .tag("repository", repositoryInterface.getSimpleName())
+                .tag("method", method.getName())
+                .register(meterRegistry.getObject()));
+
+        if (result instanceof Stream<?> stream) {
+            AtomicLong rows = new AtomicLong();
+            return stream.peek(row -> rows.incrementAndGet()).onClose(() -> summary.record(rows.get()));
+        }
+        if (result instanceof Collection<?> collection) {
+            summary.record(collection.size());
+        } else if (result instanceof Slice<?> slice) {
+            summary.record(slice.getNumberOfElements());
+        } else if (result instanceof Optional<?> optional) {
+            summary.record(optional.isPresent() ? 1 : 0);
+        } else if (result instanceof Integer modifiedRows) {
+            // Row count of the modifying queries
+            summary.record(modifiedRows);
+        } else if (!(result instanceof Iterable<?>) && !(result instanceof Number) && !(result instanceof Boolean)) {
+            // Single entity
+            summary.record(1);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package fr.polytech.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.stream.Stream;
+
+/**
+ * Open a child span for each repository call, named after the repository and the method.
+ * Calls made outside of a trace do not start a new one. Spans of the streams end when the stream is closed.
+ */
+public class RepositoryTracingInterceptor implements MethodInterceptor {
+
+    private final Class<?> repositoryInterface;
+
+    private final ObjectProvider<Tracer> tracer;
+
+    /**
+     * Create the interceptor.
+     *
+     * @param repositoryInterface Interface of the intercepted repository
+     * @param tracer              Tracer of the spans
+     */
+    public RepositoryTracingInterceptor(Class<?> repositoryInterface, ObjectProvider<Tracer> tracer) {
+        this.repositoryInterface = repositoryInterface;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Tracer currentTracer = tracer.getIfAvailable();
+        if (currentTracer == null || currentTracer.currentSpan() == null) {
+            return invocation.proceed();
+        }
+
+        String repository = repositoryInterface.getSimpleName();
+        Span span = currentTracer.nextSpan()
+                .name(repository + "." + invocation.getMethod().getName())
+                .tag("db.repository", repository)
+                .tag("db.operation", invocation.getMethod().getName())
+                .start();
+        boolean endNow = true;
+        try (Tracer.SpanInScope ignored = currentTracer.withSpan(span)) {
+            Object result = invocation.proceed();
+            if (result instanceof Stream<?> stream) {
+                endNow = false;
+                return stream.onClose(span::end);
+            }
+            return result;
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            if (endNow) {
+                span.end();
+            }
+        }
+    }
+}
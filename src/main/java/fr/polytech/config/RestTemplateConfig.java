@@ -1,16 +1,116 @@
 package fr.polytech.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${experience.http-client.max-total:200}")
+    private int maxTotal;
+
+    @Value("${experience.http-client.max-per-route:50}")
+    private int maxPerRoute;
+
+    @Value("${experience.http-client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${experience.http-client.socket-timeout:5s}")
+    private Duration socketTimeout;
+
+    @Value("${experience.http-client.connection-request-timeout:1s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${experience.http-client.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Value("${experience.http-client.time-to-live:5m}")
+    private Duration timeToLive;
+
+    /**
+     * Pool of keep-alive connections shared by all the downstream API calls.
+     *
+     * @param meterRegistry Registry of the lease wait time metric
+     * @return PoolingHttpClientConnectionManager
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager connectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = new InstrumentedConnectionManager(meterRegistry);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setDefaultSocketConfig(SocketConfig.custom()
+                .setSoTimeout(Timeout.of(socketTimeout))
+                .build());
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(socketTimeout))
+                .setTimeToLive(TimeValue.of(timeToLive))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build());
+        return connectionManager;
+    }
+
+    /**
+     * Export the pool utilisation through actuator.
+     *
+     * @param connectionManager Pool of connections
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder connectionManagerMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "downstream");
+    }
+
+    /**
+     * HTTP client using the pool of connections, evicting the idle ones in the background.
+     *
+     * @param connectionManager Pool of connections
+     * @return CloseableHttpClient
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(socketTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+    }
+
+    /**
+     * RestTemplate used to call the downstream APIs.
+     * Built from the RestTemplateBuilder so that http.client.requests latencies are recorded per host.
+     *
+     * @param restTemplateBuilder Builder configured by Spring Boot
+     * @param httpClient          HTTP client using the pool of connections
+     * @return RestTemplate
+     */
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, CloseableHttpClient httpClient) {
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
     }
 }
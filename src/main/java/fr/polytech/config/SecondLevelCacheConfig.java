@@ -0,0 +1,101 @@
+package fr.polytech.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /**
+     * Region of the Experience entities.
+     */
+    public static final String EXPERIENCE_REGION = "experience";
+
+    /**
+     * Region of the experiences of a company or of a job category.
+     */
+    public static final String EXPERIENCE_QUERY_REGION = "experience-query";
+
+    private final Logger logger = LoggerFactory.getLogger(SecondLevelCacheConfig.class);
+
+    /**
+     * JCache manager of the Hibernate second-level cache, backed by Caffeine.
+     * The regions are created here with their own time to live and size, instead of the unbounded defaults of Hibernate.
+     * The update timestamps region is never evicted: the cached query results would otherwise be considered up to date after a write.
+     * The hits, misses and evictions of each region are published as cache metrics.
+     *
+     * @param experienceTtl         Time to live of the cached experiences
+     * @param experienceMaximumSize Maximum number of cached experiences
+     * @param queryTtl              Time to live of the cached query results
+     * @param queryMaximumSize      Maximum number of cached query results
+     * @param meterRegistry         Registry of the region metrics
+     * @return CacheManager of the second-level cache
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${experience.cache.hibernate.experience.ttl:5m}") Duration experienceTtl,
+                                              @Value("${experience.cache.hibernate.experience.maximum-size:10000}") long experienceMaximumSize,
+                                              @Value("${experience.cache.hibernate.query.ttl:5m}") Duration queryTtl,
+                                              @Value("${experience.cache.hibernate.query.maximum-size:1000}") long queryMaximumSize,
+                                              ObjectProvider<MeterRegistry> meterRegistry) {
+        CaffeineCachingProvider cachingProvider = (CaffeineCachingProvider) Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // The managers are shared by URI, each application context gets its own
+        CacheManager cacheManager = cachingProvider.getCacheManager(URI.create("urn:experience:hibernate:" + UUID.randomUUID()), SecondLevelCacheConfig.class.getClassLoader());
+
+        cacheManager.createCache(EXPERIENCE_REGION, regionConfiguration(experienceTtl, experienceMaximumSize));
+        cacheManager.createCache(EXPERIENCE_QUERY_REGION, regionConfiguration(queryTtl, queryMaximumSize));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, regionConfiguration(queryTtl, queryMaximumSize));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, regionConfiguration(null, null));
+        meterRegistry.ifAvailable(registry -> cacheManager.getCacheNames().forEach(name -> JCacheMetrics.monitor(registry, cacheManager.getCache(name))));
+        logger.info("Caching the experiences for " + experienceTtl + " and the query results for " + queryTtl);
+
+        return cacheManager;
+    }
+
+    /**
+     * Give the cache manager to Hibernate, which finds its regions by name.
+     *
+     * @param hibernateCacheManager CacheManager of the second-level cache
+     * @return HibernatePropertiesCustomizer setting the cache manager
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Configuration of a region.
+     *
+     * @param ttl         Time to live of the entries, null for no expiration
+     * @param maximumSize Maximum number of entries, null for no limit
+     * @return CaffeineConfiguration of the region
+     */
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(Duration ttl, Long maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        if (maximumSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -1,5 +1,6 @@
 package fr.polytech.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -15,7 +16,8 @@ import static org.springframework.security.config.http.SessionCreationPolicy.STA
 @EnableMethodSecurity
 public class SecurityConfig {
 
-    private final JwtAuthConverter jwtAuthConverter = new JwtAuthConverter();
+    @Autowired
+    private JwtAuthConverter jwtAuthConverter;
 
     /**
      * Configure the security filter chain to intercept all requests
@@ -28,7 +30,10 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
-                .authorizeHttpRequests((auth) -> auth.anyRequest().authenticated());
+                .authorizeHttpRequests((auth) -> auth
+                        // Probed by the orchestrator without token
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .anyRequest().authenticated());
 
         http
                 .oauth2ResourceServer((oauth2) -> oauth2
@@ -0,0 +1,65 @@
+package fr.polytech.config;
+
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import reactor.core.publisher.Hooks;
+
+import java.time.Duration;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Restore the trace context captured in the Reactor context on the threads running the reactive pipelines.
+     */
+    @PostConstruct
+    public void enableReactorContextPropagation() {
+        Hooks.enableAutomaticContextPropagation();
+    }
+
+    /**
+     * Export the spans to an OpenTelemetry collector over OTLP/HTTP.
+     * Selected by experience.tracing.exporter=otlp, any other SpanExporter bean is exported to as well.
+     *
+     * @param endpoint Traces endpoint of the collector
+     * @param timeout  Maximum time to wait for the collector
+     * @return OtlpHttpSpanExporter
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "experience.tracing.exporter", havingValue = "otlp", matchIfMissing = true)
+    public OtlpHttpSpanExporter otlpHttpSpanExporter(@Value("${experience.tracing.otlp.endpoint:http://localhost:4318/v1/traces}") String endpoint,
+                                                     @Value("${experience.tracing.otlp.timeout:10s}") Duration timeout) {
+        return OtlpHttpSpanExporter.builder()
+                .setEndpoint(endpoint)
+                .setTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Open a span for each repository call made while a trace is in progress.
+     *
+     * @param tracer Tracer, resolved on the first invocation
+     * @return BeanPostProcessor adding the span interceptor to the repository factories
+     */
+    @Bean
+    public static BeanPostProcessor repositoryTracingPostProcessor(ObjectProvider<Tracer> tracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RepositoryTracingInterceptor(repositoryInformation.getRepositoryInterface(), tracer))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package fr.polytech.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Opt-in mode running the Tomcat request handling and the asynchronous requests on virtual threads.
+ * Enabled with experience.virtual-threads.enabled=true, the downstream calls then also run on virtual threads.
+ * When the JVM does not provide virtual threads, a warning is logged and the Tomcat pool and the default task executor are kept.
+ */
+@Configuration
+@ConditionalOnProperty(name = "experience.virtual-threads.enabled", havingValue = "true")
+@Conditional(VirtualThreadConfig.VirtualThreadsSupportedCondition.class)
+public class VirtualThreadConfig {
+
+    private final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    /**
+     * Run each Tomcat request on its own virtual thread instead of the platform thread pool.
+     *
+     * @return TomcatProtocolHandlerCustomizer
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        logger.info("Handling requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Run the asynchronous requests, such as the streamed responses, on virtual threads.
+     *
+     * @return AsyncTaskExecutor
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(VirtualThreads.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Match when the running JVM provides virtual threads, warning otherwise.
+     */
+    static class VirtualThreadsSupportedCondition implements Condition {
+
+        private final Logger logger = LoggerFactory.getLogger(VirtualThreadsSupportedCondition.class);
+
+        /**
+         * Check if the running JVM provides virtual threads.
+         *
+         * @param context  Condition context
+         * @param metadata Metadata of the configuration
+         * @return True if virtual threads can be created
+         */
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            if (VirtualThreads.isSupported()) {
+                return true;
+            }
+            logger.warn("Virtual threads are not supported by this JVM, handling the requests on the platform thread pool");
+            return false;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package fr.polytech.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads when the running JVM provides them.
+ * The classes are compiled with --release 17: the maven.compiler.release of the Spring Boot parent takes precedence over
+ * the maven.compiler.source and target of 20 in pom.xml. Java 17 has no virtual threads, and in Java 20 they are still a preview API,
+ * so the Java 21 API is looked up at runtime.
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findFactory();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Check if the running JVM provides virtual threads.
+     *
+     * @return True if virtual threads can be created
+     */
+    public static boolean isSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Create an executor starting a new virtual thread for each task.
+     *
+     * @return ExecutorService
+     * @throws IllegalStateException if the running JVM does not provide virtual threads
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() throws IllegalStateException {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            throw new IllegalStateException("Virtual threads require Java 21, or Java 19/20 with --enable-preview");
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to create a virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Look up Executors.newVirtualThreadPerTaskExecutor, and check that it can be called.
+     *
+     * @return MethodHandle, or null if virtual threads are not available
+     */
+    private static MethodHandle findFactory() {
+        try {
+            MethodHandle factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            // On Java 19 and 20 the method exists but throws without --enable-preview
+            ((ExecutorService) factory.invokeExact()).shutdown();
+            return factory;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
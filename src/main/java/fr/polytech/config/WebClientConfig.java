@@ -0,0 +1,82 @@
+package fr.polytech.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class WebClientConfig {
+
+    @Value("${experience.web-client.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${experience.web-client.pending-acquire-max-count:-1}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${experience.web-client.pending-acquire-timeout:1s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${experience.web-client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${experience.web-client.response-timeout:5s}")
+    private Duration responseTimeout;
+
+    @Value("${experience.web-client.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    /**
+     * Pool of keep-alive connections shared by all the non-blocking downstream API calls.
+     *
+     * @return ConnectionProvider
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider downstreamConnectionProvider() {
+        return ConnectionProvider.builder("downstream")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Builder of the non-blocking client, resolving the service names through the load balancer.
+     *
+     * @param connectionProvider Pool of connections
+     * @param customizers        Customizers registered by Spring Boot (codecs, observations)
+     * @return WebClient.Builder
+     */
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder(ConnectionProvider connectionProvider, ObjectProvider<WebClientCustomizer> customizers) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        WebClient.Builder builder = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient));
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
+    }
+
+    /**
+     * Non-blocking client used for the downstream API calls.
+     *
+     * @param builder Load balanced builder
+     * @return WebClient
+     */
+    @Bean
+    public WebClient webClient(@LoadBalanced WebClient.Builder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,38 @@
+package fr.polytech.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Store a LocalDate as an SQL DATE.
+ * The dates are read with getDate, so the rows written when the column was a TIMESTAMP are read back as their day,
+ * and the column can be migrated to DATE with ALTER TABLE experience ALTER COLUMN ... TYPE date.
+ */
+@Converter
+public class LocalDateConverter implements AttributeConverter<LocalDate, Date> {
+
+    /**
+     * Convert a LocalDate to the value of the column.
+     *
+     * @param localDate LocalDate of the attribute, possibly null
+     * @return Date of the column
+     */
+    @Override
+    public Date convertToDatabaseColumn(LocalDate localDate) {
+        return localDate == null ? null : Date.valueOf(localDate);
+    }
+
+    /**
+     * Convert the value of the column to a LocalDate.
+     *
+     * @param date Date of the column, possibly null
+     * @return LocalDate of the attribute
+     */
+    @Override
+    public LocalDate convertToEntityAttribute(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+}
@@ -0,0 +1,33 @@
+package fr.polytech.generator;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate the UUID id of an entity with {@link TimeOrderedUuidGenerator}.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TimeOrderedUuid {
+
+    /**
+     * Strategy used to generate the ids.
+     */
+    enum Strategy {
+        /**
+         * UUIDv7-style ids, increasing with time so that inserts append to the primary key index.
+         */
+        TIME_ORDERED,
+        /**
+         * Random UUIDv4 ids.
+         */
+        RANDOM
+    }
+
+    Strategy strategy() default Strategy.TIME_ORDERED;
+}
@@ -0,0 +1,94 @@
+package fr.polytech.generator;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * Hibernate id generator producing UUIDs with the layout of UUIDv7:
+ * a 48-bit Unix timestamp in milliseconds, a 12-bit counter keeping the ids generated within the same millisecond ordered,
+ * and 62 random bits.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final long MAX_COUNTER = 0xFFF;
+
+    private static long lastTimestamp;
+
+    private static long counter;
+
+    private final TimeOrderedUuid.Strategy strategy;
+
+    /**
+     * Create the generator of an id annotated with {@link TimeOrderedUuid}.
+     *
+     * @param config  Annotation of the id
+     * @param member  Id field or getter
+     * @param context Creation context
+     */
+    public TimeOrderedUuidGenerator(TimeOrderedUuid config, Member member, CustomIdGeneratorCreationContext context) {
+        this.strategy = config.strategy();
+    }
+
+    /**
+     * Generate an id.
+     *
+     * @param session      Current session
+     * @param owner        Entity being inserted
+     * @param currentValue Current id of the entity
+     * @param eventType    Insert event
+     * @return UUID
+     */
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return strategy == TimeOrderedUuid.Strategy.RANDOM ? UUID.randomUUID() : next();
+    }
+
+    /**
+     * Ids are only generated on insert.
+     *
+     * @return Insert event type
+     */
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * Generate a time-ordered UUID. Ids generated by this JVM are strictly increasing.
+     *
+     * @return UUID
+     */
+    public static UUID next() {
+        long timestamp;
+        long sequence;
+        synchronized (TimeOrderedUuidGenerator.class) {
+            timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+            if (timestamp == lastTimestamp) {
+                counter++;
+                if (counter > MAX_COUNTER) {
+                    // Counter exhausted, borrow the next millisecond
+                    timestamp++;
+                    counter = 0;
+                }
+            } else {
+                counter = 0;
+            }
+            lastTimestamp = timestamp;
+            sequence = counter;
+        }
+
+        long mostSignificantBits = (timestamp << 16) | 0x7000L | sequence;
+        long leastSignificantBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
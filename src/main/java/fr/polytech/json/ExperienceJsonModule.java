@@ -0,0 +1,237 @@
+package fr.polytech.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.ser.std.UUIDSerializer;
+import fr.polytech.model.CompanyDTO;
+import fr.polytech.model.DetailedExperienceDTO;
+import fr.polytech.model.Experience;
+import fr.polytech.model.JobCategoryDTO;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hand-written serializers of the experiences and of the resources they embed, replacing the reflective bean serializers.
+ * The properties are written in the order of the default serializers, with precomputed names and with the null values.
+ * A property added to one of these classes must be added to its serializer too.
+ */
+public class ExperienceJsonModule extends SimpleModule {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString JOB_TITLE = new SerializedString("jobTitle");
+    private static final SerializedString JOB_CATEGORY_ID = new SerializedString("jobCategoryId");
+    private static final SerializedString JOB_CATEGORY = new SerializedString("jobCategory");
+    private static final SerializedString START_DATE = new SerializedString("startDate");
+    private static final SerializedString END_DATE = new SerializedString("endDate");
+    private static final SerializedString COMPANY_ID = new SerializedString("companyId");
+    private static final SerializedString COMPANY = new SerializedString("company");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString LOGO_URL = new SerializedString("logoUrl");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString EMPLOYEES_NUMBER_RANGE = new SerializedString("employeesNumberRange");
+    private static final SerializedString ADDRESS_ID = new SerializedString("addressId");
+    private static final SerializedString SIRET_NUMBER = new SerializedString("siretNumber");
+    private static final SerializedString DOCUMENTS_URL = new SerializedString("documentsUrl");
+
+    private static final UUIDSerializer UUID_SERIALIZER = new UUIDSerializer();
+
+    private static final JobCategorySerializer JOB_CATEGORY_SERIALIZER = new JobCategorySerializer();
+
+    private static final CompanySerializer COMPANY_SERIALIZER = new CompanySerializer();
+
+    /**
+     * Create the module.
+     */
+    public ExperienceJsonModule() {
+        super("ExperienceJsonModule");
+        addSerializer(Experience.class, new ExperienceSerializer());
+        addSerializer(DetailedExperienceDTO.class, new DetailedExperienceSerializer());
+        addSerializer(CompanyDTO.class, COMPANY_SERIALIZER);
+        addSerializer(JobCategoryDTO.class, JOB_CATEGORY_SERIALIZER);
+    }
+
+    /**
+     * Serializer of Experience.
+     */
+    static class ExperienceSerializer extends StdSerializer<Experience> {
+
+        ExperienceSerializer() {
+            super(Experience.class);
+        }
+
+        @Override
+        public void serialize(Experience experience, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(experience);
+            writeUuid(generator, provider, ID, experience.getId());
+            writeString(generator, JOB_TITLE, experience.getJobTitle());
+            writeUuid(generator, provider, JOB_CATEGORY_ID, experience.getJobCategoryId());
+            writeDate(generator, provider, START_DATE, experience.getStartDate());
+            writeDate(generator, provider, END_DATE, experience.getEndDate());
+            writeUuid(generator, provider, COMPANY_ID, experience.getCompanyId());
+            generator.writeFieldName(VERSION);
+            if (experience.getVersion() == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(experience.getVersion());
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Serializer of DetailedExperienceDTO, whose version is not written.
+     */
+    static class DetailedExperienceSerializer extends StdSerializer<DetailedExperienceDTO> {
+
+        DetailedExperienceSerializer() {
+            super(DetailedExperienceDTO.class);
+        }
+
+        @Override
+        public void serialize(DetailedExperienceDTO detailedExperience, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(detailedExperience);
+            writeUuid(generator, provider, ID, detailedExperience.getId());
+            writeString(generator, JOB_TITLE, detailedExperience.getJobTitle());
+            generator.writeFieldName(JOB_CATEGORY);
+            if (detailedExperience.getJobCategory() == null) {
+                generator.writeNull();
+            } else {
+                JOB_CATEGORY_SERIALIZER.serialize(detailedExperience.getJobCategory(), generator, provider);
+            }
+            writeDate(generator, provider, START_DATE, detailedExperience.getStartDate());
+            writeDate(generator, provider, END_DATE, detailedExperience.getEndDate());
+            generator.writeFieldName(COMPANY);
+            if (detailedExperience.getCompany() == null) {
+                generator.writeNull();
+            } else {
+                COMPANY_SERIALIZER.serialize(detailedExperience.getCompany(), generator, provider);
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Serializer of CompanyDTO.
+     */
+    static class CompanySerializer extends StdSerializer<CompanyDTO> {
+
+        CompanySerializer() {
+            super(CompanyDTO.class);
+        }
+
+        @Override
+        public void serialize(CompanyDTO company, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(company);
+            writeUuid(generator, provider, ID, company.getId());
+            writeString(generator, NAME, company.getName());
+            writeString(generator, LOGO_URL, company.getLogoUrl());
+            writeString(generator, DESCRIPTION, company.getDescription());
+            writeString(generator, EMPLOYEES_NUMBER_RANGE, company.getEmployeesNumberRange());
+            generator.writeFieldName(ADDRESS_ID);
+            List<UUID> addressIds = company.getAddressId();
+            if (addressIds == null) {
+                generator.writeNull();
+            } else {
+                generator.writeStartArray(addressIds, addressIds.size());
+                for (UUID addressId : addressIds) {
+                    if (addressId == null) {
+                        generator.writeNull();
+                    } else {
+                        UUID_SERIALIZER.serialize(addressId, generator, provider);
+                    }
+                }
+                generator.writeEndArray();
+            }
+            writeString(generator, SIRET_NUMBER, company.getSiretNumber());
+            generator.writeFieldName(DOCUMENTS_URL);
+            List<String> documentsUrls = company.getDocumentsUrl();
+            if (documentsUrls == null) {
+                generator.writeNull();
+            } else {
+                generator.writeStartArray(documentsUrls, documentsUrls.size());
+                for (String documentsUrl : documentsUrls) {
+                    generator.writeString(documentsUrl);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Serializer of JobCategoryDTO.
+     */
+    static class JobCategorySerializer extends StdSerializer<JobCategoryDTO> {
+
+        JobCategorySerializer() {
+            super(JobCategoryDTO.class);
+        }
+
+        @Override
+        public void serialize(JobCategoryDTO jobCategory, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(jobCategory);
+            writeUuid(generator, provider, ID, jobCategory.getId());
+            writeString(generator, NAME, jobCategory.getName());
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Write a string property.
+     *
+     * @param generator Generator
+     * @param name      Name of the property
+     * @param value     Value, possibly null
+     * @throws IOException If the property cannot be written
+     */
+    private static void writeString(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+
+    /**
+     * Write a UUID property, as the default UUID serializer does.
+     *
+     * @param generator Generator
+     * @param provider  Provider of the serialization
+     * @param name      Name of the property
+     * @param value     Value, possibly null
+     * @throws IOException If the property cannot be written
+     */
+    private static void writeUuid(JsonGenerator generator, SerializerProvider provider, SerializedString name, UUID value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            UUID_SERIALIZER.serialize(value, generator, provider);
+        }
+    }
+
+    /**
+     * Write a date property as an ISO date, or with the serializer of the mapper when it writes the dates as timestamps.
+     *
+     * @param generator Generator
+     * @param provider  Provider of the serialization
+     * @param name      Name of the property
+     * @param value     Value, possibly null
+     * @throws IOException If the property cannot be written
+     */
+    private static void writeDate(JsonGenerator generator, SerializerProvider provider, SerializedString name, LocalDate value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeValue(value, generator);
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package fr.polytech.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+
+/**
+ * JsonFactory taking the buffers of the generators and parsers from a fixed pool of recyclers, shared by all the threads.
+ * The default factory keeps one recycler per thread, which a virtual thread handling a single request never reuses.
+ * A recycler hands each of its buffers to one user at a time: a thread finding a buffer in use allocates a new one.
+ * The pool overrides _getBufferRecycler, an internal of Jackson 2.15.x: PooledJsonFactoryTest fails if an upgrade stops calling it.
+ */
+public class PooledJsonFactory extends JsonFactory {
+
+    private final BufferRecycler[] recyclers;
+
+    /**
+     * Create the factory.
+     *
+     * @param poolSize Number of recyclers, the threads are spread over them by id
+     */
+    public PooledJsonFactory(int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Invalid buffer pool size: " + poolSize);
+        }
+        recyclers = new BufferRecycler[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            recyclers[i] = new BufferRecycler();
+        }
+    }
+
+    /**
+     * Create a copy of a factory, sharing its recyclers.
+     *
+     * @param source Factory to copy
+     */
+    protected PooledJsonFactory(PooledJsonFactory source) {
+        super(source, null);
+        recyclers = source.recyclers;
+    }
+
+    /**
+     * Copy the factory, as done by ObjectMapper.copy().
+     *
+     * @return PooledJsonFactory sharing the recyclers of this factory
+     */
+    @Override
+    public JsonFactory copy() {
+        return new PooledJsonFactory(this);
+    }
+
+    /**
+     * Get the recycler of the current thread.
+     *
+     * @return BufferRecycler
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public BufferRecycler _getBufferRecycler() {
+        return recyclers[(int) (Thread.currentThread().getId() % recyclers.length)];
+    }
+}
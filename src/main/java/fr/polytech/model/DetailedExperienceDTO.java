@@ -1,16 +1,27 @@
 package fr.polytech.model;
 
-import java.util.Date;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDate;
 import java.util.UUID;
 
 public class DetailedExperienceDTO {
     private UUID id;
     private String jobTitle;
     private JobCategoryDTO jobCategory;
-    private Date startDate;
-    private Date endDate;
+    private LocalDate startDate;
+    private LocalDate endDate;
     private CompanyDTO company;
 
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * True when the company or the job category could not be fetched and only holds its id.
+     */
+    @JsonIgnore
+    private boolean degraded;
+
     public UUID getId() {
         return id;
     }
@@ -43,20 +54,36 @@ public class DetailedExperienceDTO {
         this.company = company;
     }
 
-    public Date getStartDate() {
+    public LocalDate getStartDate() {
         return startDate;
     }
 
-    public void setStartDate(Date startDate) {
+    public void setStartDate(LocalDate startDate) {
         this.startDate = startDate;
     }
 
-    public Date getEndDate() {
+    public LocalDate getEndDate() {
         return endDate;
     }
 
-    public void setEndDate(Date endDate) {
+    public void setEndDate(LocalDate endDate) {
         this.endDate = endDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    public void setDegraded(boolean degraded) {
+        this.degraded = degraded;
+    }
+
 }
@@ -1,24 +1,43 @@
 package fr.polytech.model;
 
+import fr.polytech.config.SecondLevelCacheConfig;
+import fr.polytech.converter.LocalDateConverter;
+import fr.polytech.generator.TimeOrderedUuid;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "experience", schema = "public")
+@Table(name = "experience", schema = "public", indexes = {
+        @Index(name = "idx_experience_company_id_start_date", columnList = "companyId, startDate"),
+        @Index(name = "idx_experience_job_category_id_start_date", columnList = "jobCategoryId, startDate")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.EXPERIENCE_REGION)
 public class Experience {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     private String jobTitle;
     private UUID jobCategoryId;
-    private Date startDate;
-    private Date endDate;
+
+    @Convert(converter = LocalDateConverter.class)
+    private LocalDate startDate;
+
+    @Convert(converter = LocalDateConverter.class)
+    private LocalDate endDate;
+
     private UUID companyId;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     public UUID getId() {
         return id;
     }
@@ -43,19 +62,19 @@ public class Experience {
         this.jobCategoryId = jobCategoryId;
     }
 
-    public Date getStartDate() {
+    public LocalDate getStartDate() {
         return startDate;
     }
 
-    public void setStartDate(Date startDate) {
+    public void setStartDate(LocalDate startDate) {
         this.startDate = startDate;
     }
 
-    public Date getEndDate() {
+    public LocalDate getEndDate() {
         return endDate;
     }
 
-    public void setEndDate(Date endDate) {
+    public void setEndDate(LocalDate endDate) {
         this.endDate = endDate;
     }
 
@@ -67,6 +86,14 @@ public class Experience {
         this.companyId = companyId;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Experience{" +
@@ -76,6 +103,7 @@ public class Experience {
                 ", startDate=" + startDate +
                 ", endDate=" + endDate +
                 ", companyId=" + companyId +
+                ", version=" + version +
                 '}';
     }
 }
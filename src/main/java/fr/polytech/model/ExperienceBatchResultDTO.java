@@ -0,0 +1,50 @@
+package fr.polytech.model;
+
+public class ExperienceBatchResultDTO {
+    private int index;
+    private int status;
+    private String message;
+    private Experience experience;
+
+    public ExperienceBatchResultDTO() {
+    }
+
+    public ExperienceBatchResultDTO(int index, int status, String message, Experience experience) {
+        this.index = index;
+        this.status = status;
+        this.message = message;
+        this.experience = experience;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Experience getExperience() {
+        return experience;
+    }
+
+    public void setExperience(Experience experience) {
+        this.experience = experience;
+    }
+}
@@ -1,15 +1,16 @@
 package fr.polytech.model;
 
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.UUID;
 
 public class ExperienceDTO {
     private UUID id;
     private String jobTitle;
     private UUID jobCategoryId;
-    private Date startDate;
-    private Date endDate;
+    private LocalDate startDate;
+    private LocalDate endDate;
     private UUID companyId;
+    private Long version;
 
     public UUID getId() {
         return id;
@@ -35,19 +36,19 @@ public class ExperienceDTO {
         this.jobCategoryId = jobCategoryId;
     }
 
-    public Date getStartDate() {
+    public LocalDate getStartDate() {
         return startDate;
     }
 
-    public void setStartDate(Date startDate) {
+    public void setStartDate(LocalDate startDate) {
         this.startDate = startDate;
     }
 
-    public Date getEndDate() {
+    public LocalDate getEndDate() {
         return endDate;
     }
 
-    public void setEndDate(Date endDate) {
+    public void setEndDate(LocalDate endDate) {
         this.endDate = endDate;
     }
 
@@ -58,4 +59,12 @@ public class ExperienceDTO {
     public void setCompanyId(UUID companyId) {
         this.companyId = companyId;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
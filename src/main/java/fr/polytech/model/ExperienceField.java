@@ -0,0 +1,70 @@
+package fr.polytech.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of an experience that can be selected with the fields parameter of the list endpoints.
+ */
+public enum ExperienceField {
+
+    ID("id"),
+    JOB_TITLE("jobTitle"),
+    JOB_CATEGORY_ID("jobCategoryId"),
+    START_DATE("startDate"),
+    END_DATE("endDate"),
+    COMPANY_ID("companyId"),
+    VERSION("version");
+
+    /**
+     * Name of the field, in the JSON documents and in the queries.
+     */
+    private final String name;
+
+    ExperienceField(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Parse a comma-separated list of field names.
+     * The id is always selected, since it identifies the experiences and is the cursor of the pages.
+     *
+     * @param fields Comma-separated field names, such as "jobTitle,startDate".
+     * @return Selected fields, in the order of the enum.
+     * @throws HttpClientErrorException If a field is unknown.
+     */
+    public static Set<ExperienceField> parse(String fields) throws HttpClientErrorException {
+        Set<ExperienceField> selectedFields = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmedName = name.trim();
+            if (trimmedName.isEmpty()) {
+                continue;
+            }
+            selectedFields.add(fromName(trimmedName));
+        }
+        return selectedFields;
+    }
+
+    /**
+     * Get a field by its name.
+     *
+     * @param name Name of the field.
+     * @return ExperienceField
+     * @throws HttpClientErrorException If the field is unknown.
+     */
+    private static ExperienceField fromName(String name) throws HttpClientErrorException {
+        for (ExperienceField field : values()) {
+            if (field.name.equals(name)) {
+                return field;
+            }
+        }
+        throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Unknown field: " + name);
+    }
+}
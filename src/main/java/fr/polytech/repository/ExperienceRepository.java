@@ -1,10 +1,62 @@
 package fr.polytech.repository;
 
+import fr.polytech.config.SecondLevelCacheConfig;
 import fr.polytech.model.Experience;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface ExperienceRepository extends JpaRepository<Experience, UUID> { }
+public interface ExperienceRepository extends JpaRepository<Experience, UUID>, ExperienceRepositoryCustom {
+
+    /**
+     * Get the first page of experiences, ordered by id.
+     *
+     * @param pageable Page request, only its size is used.
+     * @return List of experiences.
+     */
+    List<Experience> findAllByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Get the page of experiences following the given cursor, ordered by id.
+     *
+     * @param id       Id of the last experience of the previous page.
+     * @param pageable Page request, only its size is used.
+     * @return List of experiences.
+     */
+    List<Experience> findByIdGreaterThanOrderByIdAsc(UUID id, Pageable pageable);
+
+    /**
+     * Get a page of the experiences of a company, most recent first.
+     * The result is cached until an experience is written.
+     *
+     * @param companyId Company id.
+     * @param pageable  Page request.
+     * @return List of experiences.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.EXPERIENCE_QUERY_REGION)
+    })
+    List<Experience> findByCompanyIdOrderByStartDateDescIdAsc(UUID companyId, Pageable pageable);
+
+    /**
+     * Get a page of the experiences of a job category, most recent first.
+     * The result is cached until an experience is written.
+     *
+     * @param jobCategoryId Job category id.
+     * @param pageable      Page request.
+     * @return List of experiences.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.EXPERIENCE_QUERY_REGION)
+    })
+    List<Experience> findByJobCategoryIdOrderByStartDateDescIdAsc(UUID jobCategoryId, Pageable pageable);
+}
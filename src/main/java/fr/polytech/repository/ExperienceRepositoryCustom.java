@@ -0,0 +1,56 @@
+package fr.polytech.repository;
+
+import fr.polytech.model.Experience;
+import fr.polytech.model.ExperienceField;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface ExperienceRepositoryCustom {
+
+    /**
+     * Stream all experiences, ordered by id.
+     * Must be called inside a transaction, and the stream must be closed by the caller.
+     *
+     * @param fetchSize Number of rows fetched from the database at once.
+     * @return Stream of experiences.
+     */
+    Stream<Experience> streamAll(int fetchSize);
+
+    /**
+     * Get the given fields of a page of experiences, ordered by id.
+     * Only the selected columns are read, and no entity is loaded in the persistence context.
+     *
+     * @param fields Fields to select.
+     * @param after  Id of the last experience of the previous page, null for the first page.
+     * @param size   Number of experiences to return.
+     * @return Selected fields of each experience, by field name.
+     */
+    List<Map<String, Object>> findFieldsPage(Set<ExperienceField> fields, UUID after, int size);
+
+    /**
+     * Get the given fields of a page of the experiences of a company, most recent first.
+     * The result is cached until an experience is written.
+     *
+     * @param fields    Fields to select.
+     * @param companyId Company id.
+     * @param pageable  Page request.
+     * @return Selected fields of each experience, by field name.
+     */
+    List<Map<String, Object>> findFieldsByCompanyId(Set<ExperienceField> fields, UUID companyId, Pageable pageable);
+
+    /**
+     * Get the given fields of a page of the experiences of a job category, most recent first.
+     * The result is cached until an experience is written.
+     *
+     * @param fields        Fields to select.
+     * @param jobCategoryId Job category id.
+     * @param pageable      Page request.
+     * @return Selected fields of each experience, by field name.
+     */
+    List<Map<String, Object>> findFieldsByJobCategoryId(Set<ExperienceField> fields, UUID jobCategoryId, Pageable pageable);
+}
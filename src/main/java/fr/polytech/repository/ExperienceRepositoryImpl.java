@@ -0,0 +1,143 @@
+package fr.polytech.repository;
+
+import fr.polytech.config.SecondLevelCacheConfig;
+import fr.polytech.model.Experience;
+import fr.polytech.model.ExperienceField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+public class ExperienceRepositoryImpl implements ExperienceRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Stream all experiences, ordered by id.
+     * Every entity is detached once read so that the persistence context does not grow with the table.
+     *
+     * @param fetchSize Number of rows fetched from the database at once.
+     * @return Stream of experiences.
+     */
+    @Override
+    public Stream<Experience> streamAll(int fetchSize) {
+        return entityManager.createQuery("SELECT e FROM Experience e ORDER BY e.id", Experience.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    /**
+     * Get the given fields of a page of experiences, ordered by id.
+     *
+     * @param fields Fields to select.
+     * @param after  Id of the last experience of the previous page, null for the first page.
+     * @param size   Number of experiences to return.
+     * @return Selected fields of each experience, by field name.
+     */
+    @Override
+    public List<Map<String, Object>> findFieldsPage(Set<ExperienceField> fields, UUID after, int size) {
+        TypedQuery<Tuple> query;
+        if (after == null) {
+            query = createFieldsQuery(fields, "", "e.id");
+        } else {
+            query = createFieldsQuery(fields, "WHERE e.id > :after", "e.id").setParameter("after", after);
+        }
+        return toMaps(fields, query.setMaxResults(size).getResultList());
+    }
+
+    /**
+     * Get the given fields of a page of the experiences of a company, most recent first.
+     *
+     * @param fields    Fields to select.
+     * @param companyId Company id.
+     * @param pageable  Page request.
+     * @return Selected fields of each experience, by field name.
+     */
+    @Override
+    public List<Map<String, Object>> findFieldsByCompanyId(Set<ExperienceField> fields, UUID companyId, Pageable pageable) {
+        TypedQuery<Tuple> query = createFieldsQuery(fields, "WHERE e.companyId = :companyId", "e.startDate DESC, e.id ASC")
+                .setParameter("companyId", companyId);
+        return toMaps(fields, cacheable(paginate(query, pageable)).getResultList());
+    }
+
+    /**
+     * Get the given fields of a page of the experiences of a job category, most recent first.
+     *
+     * @param fields        Fields to select.
+     * @param jobCategoryId Job category id.
+     * @param pageable      Page request.
+     * @return Selected fields of each experience, by field name.
+     */
+    @Override
+    public List<Map<String, Object>> findFieldsByJobCategoryId(Set<ExperienceField> fields, UUID jobCategoryId, Pageable pageable) {
+        TypedQuery<Tuple> query = createFieldsQuery(fields, "WHERE e.jobCategoryId = :jobCategoryId", "e.startDate DESC, e.id ASC")
+                .setParameter("jobCategoryId", jobCategoryId);
+        return toMaps(fields, cacheable(paginate(query, pageable)).getResultList());
+    }
+
+    /**
+     * Create a query selecting the given fields of the experiences.
+     * The field names come from ExperienceField, never from the request.
+     *
+     * @param fields  Fields to select.
+     * @param where   Where clause, empty for none.
+     * @param orderBy Order by clause.
+     * @return Query of the selected fields.
+     */
+    private TypedQuery<Tuple> createFieldsQuery(Set<ExperienceField> fields, String where, String orderBy) {
+        StringJoiner select = new StringJoiner(", ", "SELECT ", " FROM Experience e ");
+        for (ExperienceField field : fields) {
+            select.add("e." + field.getName() + " AS " + field.getName());
+        }
+        return entityManager.createQuery(select + where + " ORDER BY " + orderBy, Tuple.class);
+    }
+
+    /**
+     * Apply a page request to a query.
+     *
+     * @param query    Query.
+     * @param pageable Page request.
+     * @return Query of the page.
+     */
+    private static TypedQuery<Tuple> paginate(TypedQuery<Tuple> query, Pageable pageable) {
+        return query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+    }
+
+    /**
+     * Cache the result of a query in the region of the experience queries.
+     *
+     * @param query Query.
+     * @return Cacheable query.
+     */
+    private static TypedQuery<Tuple> cacheable(TypedQuery<Tuple> query) {
+        return query.setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, SecondLevelCacheConfig.EXPERIENCE_QUERY_REGION);
+    }
+
+    /**
+     * Convert the rows of a query to maps of the selected fields, in the order of the fields.
+     *
+     * @param fields Selected fields.
+     * @param rows   Rows of the query.
+     * @return Selected fields of each row, by field name.
+     */
+    private static List<Map<String, Object>> toMaps(Set<ExperienceField> fields, List<Tuple> rows) {
+        List<Map<String, Object>> experiences = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> experience = new LinkedHashMap<>(fields.size() * 2);
+            for (ExperienceField field : fields) {
+                experience.put(field.getName(), row.get(field.getName()));
+            }
+            experiences.add(experience);
+        }
+        return experiences;
+    }
+}
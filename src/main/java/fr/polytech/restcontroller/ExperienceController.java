@@ -1,24 +1,35 @@
 package fr.polytech.restcontroller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import fr.polytech.annotation.IsAdmin;
 import fr.polytech.annotation.IsCandidate;
 import fr.polytech.annotation.IsCandidateOrUserManager;
 import fr.polytech.model.DetailedExperienceDTO;
 import fr.polytech.model.Experience;
+import fr.polytech.model.ExperienceBatchResultDTO;
 import fr.polytech.model.ExperienceDTO;
+import fr.polytech.model.ExperienceField;
 import fr.polytech.service.ExperienceService;
+import fr.polytech.service.HttpCacheService;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.Produces;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -30,30 +41,92 @@ public class ExperienceController {
      */
     private final Logger logger = LoggerFactory.getLogger(ExperienceController.class);
 
+    /**
+     * Response header holding the cursor of the next page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Response header set when the company or the job category of a detailed experience could not be fetched and only holds its id.
+     */
+    public static final String DEGRADED_HEADER = "X-Degraded";
+
     @Autowired
     private ExperienceService experienceService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HttpCacheService httpCacheService;
+
     /**
-     * Get all experiences.
+     * Get a page of experiences.
+     * The cursor of the next page is returned in the X-Next-Cursor header when the page is not empty.
      *
-     * @return List of all experiences.
+     * @param after  Id of the last experience of the previous page, absent for the first page.
+     * @param size   Number of experiences to return, absent for the default page size.
+     * @param fields Comma-separated fields to return, such as jobTitle,startDate, absent for all fields. The id is always returned.
+     * @return List of experiences following the cursor.
      */
     @GetMapping("/")
     @IsAdmin
     @Produces(MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Experience>> getAllExperiences() {
+    public ResponseEntity<List<?>> getAllExperiences(@RequestParam(value = "after", required = false) UUID after, @RequestParam(value = "size", required = false) Integer size,
+                                                     @RequestParam(value = "fields", required = false) String fields) {
         try {
-            List<Experience> experiences = experienceService.getAllExperiences();
-            logger.info("Got all experiences");
-            return ResponseEntity.ok(experiences);
+            String nextCursor;
+            List<?> experiences;
+            if (fields == null) {
+                List<Experience> page = experienceService.getExperiencesPage(after, size);
+                nextCursor = page.isEmpty() ? null : page.get(page.size() - 1).getId().toString();
+                experiences = page;
+            } else {
+                List<Map<String, Object>> page = experienceService.getExperienceFieldsPage(after, size, ExperienceField.parse(fields));
+                nextCursor = page.isEmpty() ? null : page.get(page.size() - 1).get(ExperienceField.ID.getName()).toString();
+                experiences = page;
+            }
+            logger.info("Got " + experiences.size() + " experiences after " + after);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (nextCursor != null) {
+                response.header(NEXT_CURSOR_HEADER, nextCursor);
+            }
+            return response.body(experiences);
         } catch (HttpClientErrorException e) {
             logger.error("Error while getting all experiences: " + e.getMessage());
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            return new ResponseEntity<>(e.getStatusCode());
         }
     }
 
+    /**
+     * Stream all experiences as a JSON array, without loading them all in memory.
+     *
+     * @return Streamed list of all experiences.
+     */
+    @GetMapping("/stream")
+    @IsAdmin
+    @Produces(MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllExperiences() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                experienceService.streamAllExperiences(experience -> {
+                    try {
+                        generator.writeObject(experience);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+            logger.info("Streamed all experiences");
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     /**
      * Get experience by id.
+     * The response carries an ETag derived from the version of the experience, a request whose If-None-Match matches it gets a 304 without body.
      *
      * @param id Experience id.
      * @return Experience with the specified id.
@@ -64,17 +137,73 @@ public class ExperienceController {
         try {
             Experience experience = experienceService.getExperienceById(id);
             logger.info("Got experience with id " + id);
-            return ResponseEntity.ok(experience);
+            return ResponseEntity.ok()
+                    .eTag(httpCacheService.experienceETag(experience))
+                    .cacheControl(httpCacheService.cacheControl())
+                    .body(experience);
         } catch (HttpClientErrorException e) {
             logger.error("Error while getting experience with id " + id + ": " + e.getMessage());
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Get a page of the experiences of a company, most recent first.
+     *
+     * @param companyId Company id.
+     * @param page      Page number, starting at 0.
+     * @param size      Number of experiences to return.
+     * @param fields    Comma-separated fields to return, such as jobTitle,startDate, absent for all fields. The id is always returned.
+     * @return List of experiences of the company.
+     */
+    @GetMapping("/company/{companyId}")
+    @Produces(MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<?>> getExperiencesByCompanyId(@PathVariable("companyId") UUID companyId, @RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "size", required = false) Integer size,
+                                                             @RequestParam(value = "fields", required = false) String fields) {
+        try {
+            List<?> experiences = fields == null
+                    ? experienceService.getExperiencesByCompanyId(companyId, page, size)
+                    : experienceService.getExperienceFieldsByCompanyId(companyId, page, size, ExperienceField.parse(fields));
+            logger.info("Got " + experiences.size() + " experiences of company " + companyId);
+            return ResponseEntity.ok(experiences);
+        } catch (HttpClientErrorException e) {
+            logger.error("Error while getting experiences of company " + companyId + ": " + e.getMessage());
+            return new ResponseEntity<>(e.getStatusCode());
+        }
+    }
+
+    /**
+     * Get a page of the experiences of a job category, most recent first.
+     *
+     * @param jobCategoryId Job category id.
+     * @param page          Page number, starting at 0.
+     * @param size          Number of experiences to return.
+     * @param fields        Comma-separated fields to return, such as jobTitle,startDate, absent for all fields. The id is always returned.
+     * @return List of experiences of the job category.
+     */
+    @GetMapping("/job-category/{jobCategoryId}")
+    @Produces(MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<?>> getExperiencesByJobCategoryId(@PathVariable("jobCategoryId") UUID jobCategoryId, @RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "size", required = false) Integer size,
+                                                                 @RequestParam(value = "fields", required = false) String fields) {
+        try {
+            List<?> experiences = fields == null
+                    ? experienceService.getExperiencesByJobCategoryId(jobCategoryId, page, size)
+                    : experienceService.getExperienceFieldsByJobCategoryId(jobCategoryId, page, size, ExperienceField.parse(fields));
+            logger.info("Got " + experiences.size() + " experiences of job category " + jobCategoryId);
+            return ResponseEntity.ok(experiences);
+        } catch (HttpClientErrorException e) {
+            logger.error("Error while getting experiences of job category " + jobCategoryId + ": " + e.getMessage());
+            return new ResponseEntity<>(e.getStatusCode());
+        }
+    }
+
     /**
      * Get detailed experience by id.
+     * The response carries an ETag derived from the version of the experience and from its company and job category,
+     * a request whose If-None-Match matches it gets a 304 without body.
      *
-     * @param id Experience id.
+     * @param id    Experience id.
+     * @param token Token of the user.
      * @return Experience with the specified id.
      */
     @GetMapping("/detailed/{id}")
@@ -83,10 +212,75 @@ public class ExperienceController {
         try {
             DetailedExperienceDTO experience = experienceService.getDetailedExperienceById(id, token);
             logger.info("Got experience with id " + id);
-            return ResponseEntity.ok(experience);
+            return detailedResponse(experience);
         } catch (HttpClientErrorException e) {
             logger.error("Error while getting experience with id " + id + ": " + e.getMessage());
-            return ResponseEntity.notFound().build();
+            return new ResponseEntity<>(e.getStatusCode());
+        }
+    }
+
+    /**
+     * Get detailed experience by id without blocking a request thread while the downstream APIs answer.
+     *
+     * @param id    Experience id.
+     * @param token Token of the user.
+     * @return Experience with the specified id.
+     */
+    @GetMapping("/detailed/{id}/reactive")
+    @Produces(MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<DetailedExperienceDTO>> getDetailedExperienceByIdReactive(@PathVariable("id") UUID id, @RequestHeader("Authorization") String token) {
+        return experienceService.getDetailedExperienceByIdReactive(id, token)
+                .map(experience -> {
+                    logger.info("Got experience with id " + id);
+                    return detailedResponse(experience);
+                })
+                .onErrorResume(HttpClientErrorException.class, e -> {
+                    logger.error("Error while getting experience with id " + id + ": " + e.getMessage());
+                    return Mono.just(new ResponseEntity<>(e.getStatusCode()));
+                })
+                // Carry the trace of the request thread into the pipeline
+                .contextCapture();
+    }
+
+    /**
+     * Build the response of a detailed experience, with its ETag and Cache-Control headers.
+     * A degraded detailed experience gets no ETag and is not stored.
+     *
+     * @param experience Detailed experience.
+     * @return Response with the detailed experience.
+     */
+    private ResponseEntity<DetailedExperienceDTO> detailedResponse(DetailedExperienceDTO experience) {
+        if (experience.isDegraded()) {
+            // A partial document must not be stored nor revalidated by the clients
+            return ResponseEntity.ok()
+                    .header(DEGRADED_HEADER, "true")
+                    .cacheControl(CacheControl.noStore())
+                    .body(experience);
+        }
+        return ResponseEntity.ok()
+                .eTag(httpCacheService.detailedExperienceETag(experience))
+                .cacheControl(httpCacheService.detailedCacheControl())
+                .body(experience);
+    }
+
+    /**
+     * Get detailed experiences by ids.
+     *
+     * @param ids   Experience ids.
+     * @param token Token of the user.
+     * @return Detailed experiences found, in the order of the ids.
+     */
+    @PostMapping("/detailed/batch")
+    @Consumes(MediaType.APPLICATION_JSON_VALUE)
+    @Produces(MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<DetailedExperienceDTO>> getDetailedExperiencesByIds(@RequestBody List<UUID> ids, @RequestHeader("Authorization") String token) {
+        try {
+            List<DetailedExperienceDTO> experiences = experienceService.getDetailedExperiencesByIds(ids, token);
+            logger.info("Got " + experiences.size() + " detailed experiences");
+            return ResponseEntity.ok(experiences);
+        } catch (HttpClientErrorException e) {
+            logger.error("Error while getting detailed experiences: " + e.getMessage());
+            return new ResponseEntity<>(e.getStatusCode());
         }
     }
 
@@ -132,6 +326,48 @@ public class ExperienceController {
         }
     }
 
+    /**
+     * Create experiences in bulk.
+     *
+     * @param experiences Experiences to create.
+     * @return Result of each experience, in the order of the experiences.
+     */
+    @PostMapping("/batch")
+    @IsCandidateOrUserManager
+    @Consumes(MediaType.APPLICATION_JSON_VALUE)
+    @Produces(MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ExperienceBatchResultDTO>> createExperiences(@RequestBody List<ExperienceDTO> experiences) {
+        try {
+            List<ExperienceBatchResultDTO> results = experienceService.createExperiences(experiences);
+            logger.info("Created experiences in bulk");
+            return ResponseEntity.ok(results);
+        } catch (HttpClientErrorException e) {
+            logger.error("Error while creating experiences in bulk: " + e.getMessage());
+            return new ResponseEntity<>(e.getStatusCode());
+        }
+    }
+
+    /**
+     * Update experiences in bulk.
+     *
+     * @param experiences Experiences to update.
+     * @return Result of each experience, in the order of the experiences.
+     */
+    @PutMapping("/batch")
+    @IsCandidate
+    @Consumes(MediaType.APPLICATION_JSON_VALUE)
+    @Produces(MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ExperienceBatchResultDTO>> updateExperiences(@RequestBody List<ExperienceDTO> experiences) {
+        try {
+            List<ExperienceBatchResultDTO> results = experienceService.updateExperiences(experiences);
+            logger.info("Updated experiences in bulk");
+            return ResponseEntity.ok(results);
+        } catch (HttpClientErrorException e) {
+            logger.error("Error while updating experiences in bulk: " + e.getMessage());
+            return new ResponseEntity<>(e.getStatusCode());
+        }
+    }
+
     /**
      * Delete an experience.
      *
@@ -148,7 +384,7 @@ public class ExperienceController {
             return new ResponseEntity<>(true, HttpStatus.OK);
         } catch (HttpClientErrorException e) {
             logger.error("Error while deleting experience with id " + id + ": " + e.getMessage());
-            return new ResponseEntity<>(false, HttpStatus.NOT_FOUND);
+            return new ResponseEntity<>(false, e.getStatusCode());
         }
     }
 }
@@ -1,21 +1,141 @@
 package fr.polytech.service;
 
+import fr.polytech.config.DownstreamEndpoints;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
 @Service
 public class ApiService {
 
     private final Logger logger = LoggerFactory.getLogger(ApiService.class);
 
+    private final ContextSnapshotFactory contextSnapshotFactory = ContextSnapshotFactory.builder().build();
+
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DownstreamMetrics downstreamMetrics;
+
+    @Autowired
+    private DownstreamEndpoints downstreamEndpoints;
+
+    @Value("${experience.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${experience.hedging.delay:0ms}")
+    private Duration hedgingDelay;
+
+    @Value("${experience.hedging.min-delay:50ms}")
+    private Duration minHedgingDelay;
+
+    @Value("${experience.hedging.pool-size:64}")
+    private int hedgingPoolSize;
+
+    private final ConcurrentMap<String, Counter> hedgeCounters = new ConcurrentHashMap<>();
+
+    private ExecutorService hedgingExecutor;
+
+    /**
+     * Create the executor of the hedged attempts.
+     */
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        hedgingExecutor = new ThreadPoolExecutor(0, hedgingPoolSize, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "hedge-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stop the executor of the hedged attempts.
+     */
+    @PreDestroy
+    public void shutdown() {
+        hedgingExecutor.shutdownNow();
+    }
+
+    /**
+     * Make an API call protected by the circuit breaker and the bulkhead of the downstream API.
+     * When hedging is enabled, a second attempt is sent if the first one did not answer after the hedging delay, and the first answer wins.
+     * Reads failing on the server side or on the network are sent again up to the number of retries of the downstream API.
+     *
+     * @param downstream   Name of the downstream API, selects its circuit breaker and bulkhead
+     * @param uri          URI of the API
+     * @param method       HTTP method
+     * @param responseType Class of the response
+     * @param token        String - Access token from the user who adds the review
+     * @param <T>          Type of the response
+     * @return Response
+     * @throws HttpClientErrorException if an error occurs while calling the API, with status 503 if the call is rejected without being sent
+     */
+    public <T> T makeApiCall(String downstream, String uri, HttpMethod method, Class<T> responseType, String token) throws HttpClientErrorException {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(downstream);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(downstream);
+
+        Supplier<T> attempt = Bulkhead.decorateSupplier(bulkhead, () -> measured(downstream, () -> makeApiCall(uri, method, responseType, token)));
+        Supplier<T> call = hedgingEnabled ? () -> hedged(downstream, downstreamMetrics.successTimer(downstream), attempt) : attempt;
+        // Only the reads are safe to send again
+        int retries = method == HttpMethod.GET ? downstreamEndpoints.get(downstream).getRetries() : 0;
+        for (int retry = 0; ; retry++) {
+            try {
+                return circuitBreaker.executeSupplier(call);
+            } catch (CallNotPermittedException e) {
+                downstreamMetrics.recordRejection(downstream, e);
+                logger.warn("Circuit breaker of the {} API is open, failing fast", downstream);
+                throw new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE, "Circuit breaker of the " + downstream + " API is open");
+            } catch (BulkheadFullException e) {
+                downstreamMetrics.recordRejection(downstream, e);
+                logger.warn("Too many concurrent calls to the {} API, failing fast", downstream);
+                throw new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent calls to the " + downstream + " API");
+            } catch (HttpServerErrorException | ResourceAccessException e) {
+                if (retry >= retries) {
+                    throw e;
+                }
+                logger.warn("Retrying the call to the {} API after an error: {}", downstream, e.getMessage());
+            }
+        }
+    }
+
     /**
      * Make an API call.
      *
@@ -39,6 +159,135 @@ public class ApiService {
         }
     }
 
+    /**
+     * Record the latency and the status of a call sent to a downstream API.
+     *
+     * @param downstream Name of the downstream API
+     * @param call       Call to the downstream API
+     * @param <T>        Type of the response
+     * @return Response
+     */
+    private <T> T measured(String downstream, Supplier<T> call) {
+        Timer.Sample sample = downstreamMetrics.start();
+        try {
+            T response = call.get();
+            downstreamMetrics.record(sample, downstream, null);
+            return response;
+        } catch (RuntimeException e) {
+            downstreamMetrics.record(sample, downstream, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Run an attempt, and a second one if the first does not answer within the hedging delay.
+     *
+     * @param downstream   Name of the downstream API
+     * @param latencyTimer Latency of the successful calls to the downstream API
+     * @param attempt      Call to the downstream API
+     * @param <T>          Type of the response
+     * @return First successful response, or the last error if both attempts failed
+     */
+    private <T> T hedged(String downstream, Timer latencyTimer, Supplier<T> attempt) {
+        // Send both attempts with the trace context of the caller
+        ContextSnapshot snapshot = contextSnapshotFactory.captureAll();
+        Supplier<T> tracedAttempt = () -> {
+            try (ContextSnapshot.Scope ignored = snapshot.setThreadLocals()) {
+                return attempt.get();
+            }
+        };
+
+        CompletableFuture<T> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(tracedAttempt, hedgingExecutor);
+        } catch (RejectedExecutionException e) {
+            // Hedging pool saturated, do not add load on the downstream API
+            return attempt.get();
+        }
+
+        try {
+            return primary.get(hedgingDelay(latencyTimer).toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.debug("No answer from the {} API after the hedging delay, sending a second request", downstream);
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while calling the " + downstream + " API");
+        } catch (ExecutionException e) {
+            return join(primary);
+        }
+
+        CompletableFuture<T> hedge;
+        try {
+            hedge = CompletableFuture.supplyAsync(tracedAttempt, hedgingExecutor);
+        } catch (RejectedExecutionException e) {
+            return join(primary);
+        }
+        hedgeCounters.computeIfAbsent(downstream, name -> Counter.builder("experience.downstream.hedges")
+                .description("Second requests sent to the downstream APIs")
+                .tag("downstream", name)
+                .register(meterRegistry)).increment();
+
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger pendingAttempts = new AtomicInteger(2);
+        BiConsumer<T, Throwable> onAttempt = (response, error) -> {
+            if (error == null) {
+                winner.complete(response);
+            } else if (pendingAttempts.decrementAndGet() == 0) {
+                winner.completeExceptionally(error);
+            }
+        };
+        primary.whenComplete(onAttempt);
+        hedge.whenComplete(onAttempt);
+        try {
+            return join(winner);
+        } finally {
+            primary.cancel(false);
+            hedge.cancel(false);
+        }
+    }
+
+    /**
+     * Get the delay after which a second request is sent: the configured one, or else the p95 latency of the successful calls to the downstream API.
+     *
+     * @param latencyTimer Latency of the successful calls to the downstream API
+     * @return Hedging delay, never below the configured minimum
+     */
+    private Duration hedgingDelay(Timer latencyTimer) {
+        if (!hedgingDelay.isZero()) {
+            return hedgingDelay;
+        }
+        long p95Nanos = 0;
+        for (ValueAtPercentile percentile : latencyTimer.takeSnapshot().percentileValues()) {
+            p95Nanos = (long) percentile.value(TimeUnit.NANOSECONDS);
+        }
+        return p95Nanos > minHedgingDelay.toNanos() ? Duration.ofNanos(p95Nanos) : minHedgingDelay;
+    }
+
+    /**
+     * Wait for an attempt and rethrow its error as is.
+     *
+     * @param future Pending attempt
+     * @param <T>    Type of the response
+     * @return Response
+     * @throws HttpClientErrorException if the attempt failed
+     */
+    private <T> T join(CompletableFuture<T> future) throws HttpClientErrorException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while calling a downstream API");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
     /**
      * Create headers for API calls.
      *
@@ -46,12 +295,13 @@ public class ApiService {
      * @return HttpHeaders
      * @throws HttpClientErrorException if the token is not valid
      */
-    private HttpHeaders createHeaders(String token) throws HttpClientErrorException {
+    public static HttpHeaders createHeaders(String token) throws HttpClientErrorException {
         if (token == null || !token.startsWith("Bearer ")) {
             throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED);
         }
         HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(token.replace("Bearer ", ""));
+        // The token already has the expected form, forward it as is
+        headers.set(HttpHeaders.AUTHORIZATION, token);
         return headers;
     }
 }
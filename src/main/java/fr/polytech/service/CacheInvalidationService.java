@@ -0,0 +1,105 @@
+package fr.polytech.service;
+
+import fr.polytech.cache.CacheInvalidation;
+import fr.polytech.cache.InvalidationBus;
+import fr.polytech.cache.LookupCache;
+import fr.polytech.config.SecondLevelCacheConfig;
+import fr.polytech.model.CompanyDTO;
+import fr.polytech.model.Experience;
+import fr.polytech.model.JobCategoryDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class CacheInvalidationService {
+
+    /**
+     * Initialize the logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LookupCache<CompanyDTO> companyCache;
+
+    @Autowired
+    private LookupCache<JobCategoryDTO> jobCategoryCache;
+
+    /**
+     * Evict the cached entries invalidated by the other replicas.
+     */
+    @PostConstruct
+    public void subscribe() {
+        invalidationBus.subscribe(this::evict);
+    }
+
+    /**
+     * Invalidate the cached experiences on the other replicas, after they are created, updated or deleted.
+     * When called inside a transaction, the invalidation is only broadcast if the transaction commits.
+     *
+     * @param ids Ids of the written experiences.
+     */
+    public void experiencesWritten(Collection<UUID> ids) {
+        if (!ids.isEmpty()) {
+            invalidationBus.publish(new CacheInvalidation(CacheInvalidation.EXPERIENCE, List.copyOf(ids)));
+        }
+    }
+
+    /**
+     * Evict the entries of an invalidation from the local caches.
+     * The cached queries returning experiences are evicted with any experience, since the written experiences may change their results.
+     *
+     * @param invalidation Invalidation received from the bus.
+     */
+    private void evict(CacheInvalidation invalidation) {
+        logger.debug("Evicting " + (invalidation.keys().isEmpty() ? "all keys" : invalidation.keys().size() + " keys") + " from cache " + invalidation.cache());
+        if (invalidation.cache() == null) {
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+            companyCache.invalidateAll();
+            jobCategoryCache.invalidateAll();
+            return;
+        }
+
+        switch (invalidation.cache()) {
+            case CacheInvalidation.EXPERIENCE -> {
+                if (invalidation.keys().isEmpty()) {
+                    entityManagerFactory.getCache().evict(Experience.class);
+                } else {
+                    invalidation.keys().forEach(id -> entityManagerFactory.getCache().evict(Experience.class, id));
+                }
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(SecondLevelCacheConfig.EXPERIENCE_QUERY_REGION);
+            }
+            case CacheInvalidation.COMPANY -> evictLookups(companyCache, invalidation.keys());
+            case CacheInvalidation.JOB_CATEGORY -> evictLookups(jobCategoryCache, invalidation.keys());
+            default -> logger.warn("Ignoring the invalidation of unknown cache " + invalidation.cache());
+        }
+    }
+
+    /**
+     * Evict resources from a lookup cache.
+     *
+     * @param cache Lookup cache.
+     * @param ids   Ids of the resources, empty for all resources.
+     */
+    private static void evictLookups(LookupCache<?> cache, List<UUID> ids) {
+        if (ids.isEmpty()) {
+            cache.invalidateAll();
+        } else {
+            ids.forEach(cache::invalidate);
+        }
+    }
+}
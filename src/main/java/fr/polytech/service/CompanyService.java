@@ -1,5 +1,7 @@
 package fr.polytech.service;
 
+import fr.polytech.cache.LookupCache;
+import fr.polytech.config.DownstreamEndpoints;
 import fr.polytech.model.CompanyDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
@@ -18,16 +21,38 @@ public class CompanyService {
     @Autowired
     private ApiService apiService;
 
+    @Autowired
+    private ReactiveApiService reactiveApiService;
+
+    @Autowired
+    private LookupCache<CompanyDTO> companyCache;
+
+    @Autowired
+    private DownstreamEndpoints downstreamEndpoints;
+
     /**
      * Get company by id.
      *
      * @param id    Company id
      * @param token Access token
-     * @return Company with the specified id
+     * @return Company with the specified id, from the cache if present
      * @throws HttpClientErrorException if an error occurs while calling the API
      */
     public CompanyDTO getCompanyById(UUID id, String token) throws HttpClientErrorException {
-        String uri = System.getenv("COMPANY_API_URI") + "/" + id;
-        return apiService.makeApiCall(uri, HttpMethod.GET, CompanyDTO.class, token);
+        String uri = downstreamEndpoints.get("company").uri(id);
+        return companyCache.get(id, () -> apiService.makeApiCall("company", uri, HttpMethod.GET, CompanyDTO.class, token));
+    }
+
+    /**
+     * Get company by id without blocking.
+     *
+     * @param id    Company id
+     * @param token Access token
+     * @return Company with the specified id, from the cache if present, or an HttpClientErrorException if an error occurs while calling the API
+     */
+    public Mono<CompanyDTO> getCompanyByIdReactive(UUID id, String token) {
+        String uri = downstreamEndpoints.get("company").uri(id);
+        // The pending fetch is shared with the other callers, do not cancel it when this subscriber goes away
+        return Mono.fromFuture(() -> companyCache.getAsync(id, key -> reactiveApiService.makeApiCall("company", uri, HttpMethod.GET, CompanyDTO.class, token).toFuture()), true);
     }
 }
@@ -0,0 +1,193 @@
+package fr.polytech.service;
+
+import fr.polytech.config.VirtualThreads;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Service
+public class DownstreamCallService {
+
+    private final Logger logger = LoggerFactory.getLogger(DownstreamCallService.class);
+
+    private final ContextSnapshotFactory contextSnapshotFactory = ContextSnapshotFactory.builder().build();
+
+    private final ExecutorService executor;
+
+    private final Semaphore permits;
+
+    private final long timeoutNanos;
+
+    /**
+     * Create the bounded executor used to call the downstream APIs concurrently.
+     * With platform threads, when the pool and its queue are full, the call is rejected with 503:
+     * running it on the calling thread instead would not be bounded by the timeout.
+     * With virtual threads, each call gets its own thread and waits for one of the pool-size permits.
+     * The platform threads are used when the JVM does not provide virtual threads.
+     *
+     * @param poolSize       Maximum number of concurrent downstream calls
+     * @param queueCapacity  Maximum number of calls waiting for a platform thread
+     * @param timeoutMillis  Maximum time to wait for a downstream call, in milliseconds
+     * @param virtualThreads True to run the calls on virtual threads
+     */
+    public DownstreamCallService(@Value("${experience.downstream.executor.pool-size:32}") int poolSize,
+                                 @Value("${experience.downstream.executor.queue-capacity:256}") int queueCapacity,
+                                 @Value("${experience.downstream.timeout-ms:3000}") long timeoutMillis,
+                                 @Value("${experience.virtual-threads.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads && !VirtualThreads.isSupported()) {
+            logger.warn("Virtual threads are not supported by this JVM, calling the downstream APIs on platform threads");
+        }
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            logger.info("Calling the downstream APIs on virtual threads");
+            this.executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+            this.permits = new Semaphore(poolSize);
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor threadPool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "downstream-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            threadPool.allowCoreThreadTimeOut(true);
+            this.executor = threadPool;
+            this.permits = null;
+        }
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Start a downstream call on the executor.
+     *
+     * @param call Call to make
+     * @param <T>  Type of the response
+     * @return Future of the response
+     * @throws HttpClientErrorException if the pool and its queue are full
+     */
+    public <T> Future<T> submit(Supplier<T> call) throws HttpClientErrorException {
+        // Run the call with the trace context of the caller, so that its spans belong to the same trace
+        Callable<T> task = contextSnapshotFactory.captureAll().wrap(call::get);
+        if (permits == null) {
+            try {
+                return executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                logger.error("Too many downstream calls, rejecting the call");
+                throw new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE, "Too many downstream calls");
+            }
+        }
+        return executor.submit(() -> {
+            permits.acquire();
+            try {
+                return task.call();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Get the deadline of downstream calls started now, to be given to {@link #await(Future, long, String)}.
+     *
+     * @return Deadline, in System.nanoTime() units
+     */
+    public long deadline() {
+        return System.nanoTime() + timeoutNanos;
+    }
+
+    /**
+     * Get the deadline of downstream calls started now to a downstream API with its own timeout.
+     *
+     * @param timeout Timeout of the downstream API, null for the default timeout
+     * @return Deadline, in System.nanoTime() units
+     */
+    public long deadline(Duration timeout) {
+        return timeout == null ? deadline() : System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Get the maximum time to wait for a downstream call, for the callers that do not go through {@link #await(Future, long, String)}.
+     *
+     * @return Timeout of the downstream calls
+     */
+    public Duration timeout() {
+        return Duration.ofNanos(timeoutNanos);
+    }
+
+    /**
+     * Get the maximum time to wait for a call to a downstream API with its own timeout.
+     *
+     * @param timeout Timeout of the downstream API, null for the default timeout
+     * @return Timeout of the downstream calls
+     */
+    public Duration timeout(Duration timeout) {
+        return timeout == null ? timeout() : timeout;
+    }
+
+    /**
+     * Wait for a downstream call until the deadline. The call is cancelled if it does not complete in time.
+     *
+     * @param future   Future of the call
+     * @param deadline Deadline given by {@link #deadline()}
+     * @param target   Name of the called API, used in logs and errors
+     * @param <T>      Type of the response
+     * @return Response
+     * @throws HttpClientErrorException if the call failed or timed out
+     */
+    public <T> T await(Future<T> future, long deadline, String target) throws HttpClientErrorException {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.error("Timeout while calling the " + target + " API");
+            throw new HttpClientErrorException(HttpStatus.GATEWAY_TIMEOUT, "Timeout while calling the " + target + " API");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while calling the " + target + " API");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HttpClientErrorException clientErrorException) {
+                throw clientErrorException;
+            }
+            if (e.getCause() instanceof HttpStatusCodeException statusCodeException) {
+                throw new HttpClientErrorException(statusCodeException.getStatusCode(), statusCodeException.getStatusText());
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Cancel downstream calls that are no longer needed.
+     *
+     * @param futures Futures of the calls
+     */
+    public void cancel(Future<?>... futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Stop the executor when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,136 @@
+package fr.polytech.service;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Latency and errors of the downstream API calls, tagged by downstream API and status.
+ * The status is the HTTP status code, or IO_ERROR, CIRCUIT_OPEN, BULKHEAD_FULL or UNKNOWN when no response was received.
+ * The timer of the successful calls also publishes their p95 latency, from which ApiService computes its hedging delay.
+ */
+@Component
+public class DownstreamMetrics {
+
+    private static final String SUCCESS = "200";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Start timing a downstream call.
+     *
+     * @return Sample to give to {@link #record(Timer.Sample, String, Throwable)}
+     */
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Record the outcome of a downstream call that was sent.
+     *
+     * @param sample     Sample started before the call
+     * @param downstream Name of the downstream API
+     * @param error      Error of the call, null if it succeeded
+     */
+    public void record(Timer.Sample sample, String downstream, Throwable error) {
+        String status = statusOf(error);
+        sample.stop(timer(downstream, status));
+        if (error != null) {
+            recordError(downstream, status);
+        }
+    }
+
+    /**
+     * Get the timer of the successful calls to a downstream API.
+     *
+     * @param downstream Name of the downstream API
+     * @return Timer publishing the p95 latency of the successful calls
+     */
+    public Timer successTimer(String downstream) {
+        return timer(downstream, SUCCESS);
+    }
+
+    /**
+     * Get the timer of the calls to a downstream API with a status, built once per downstream API and status.
+     *
+     * @param downstream Name of the downstream API
+     * @param status     Status of the calls
+     * @return Timer
+     */
+    private Timer timer(String downstream, String status) {
+        return timers.computeIfAbsent(downstream + ":" + status, key -> {
+            Timer.Builder builder = Timer.builder("experience.downstream.requests")
+                    .description("Calls to the downstream APIs")
+                    .tag("downstream", downstream)
+                    .tag("status", status);
+            if (SUCCESS.equals(status)) {
+                builder.publishPercentiles(0.95);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    /**
+     * Record a downstream call rejected before being sent.
+     *
+     * @param downstream Name of the downstream API
+     * @param error      Rejection
+     */
+    public void recordRejection(String downstream, Throwable error) {
+        recordError(downstream, statusOf(error));
+    }
+
+    /**
+     * Increment the error counter of a downstream API.
+     *
+     * @param downstream Name of the downstream API
+     * @param status     Status of the call
+     */
+    private void recordError(String downstream, String status) {
+        Counter.builder("experience.downstream.errors")
+                .description("Failed calls to the downstream APIs")
+                .tag("downstream", downstream)
+                .tag("status", status)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Get the status tag of a downstream call.
+     *
+     * @param error Error of the call, null if it succeeded
+     * @return Status tag
+     */
+    static String statusOf(Throwable error) {
+        if (error == null) {
+            return SUCCESS;
+        }
+        if (error instanceof HttpStatusCodeException statusCodeException) {
+            return String.valueOf(statusCodeException.getStatusCode().value());
+        }
+        if (error instanceof CallNotPermittedException) {
+            return "CIRCUIT_OPEN";
+        }
+        if (error instanceof BulkheadFullException) {
+            return "BULKHEAD_FULL";
+        }
+        if (error instanceof ResourceAccessException || error instanceof WebClientRequestException || error instanceof TimeoutException) {
+            return "IO_ERROR";
+        }
+        return "UNKNOWN";
+    }
+}
@@ -1,19 +1,37 @@
 package fr.polytech.service;
 
+import fr.polytech.config.DownstreamEndpoints;
 import fr.polytech.model.*;
 import fr.polytech.repository.ExperienceRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 import jakarta.ws.rs.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "experience.service", description = "Time spent in the experience service methods")
 public class ExperienceService {
 
     /**
@@ -30,16 +48,197 @@ public class ExperienceService {
     @Autowired
     private JobCategoryService jobCategoryService;
 
+    @Autowired
+    private DownstreamCallService downstreamCallService;
+
+    @Autowired
+    private DownstreamEndpoints downstreamEndpoints;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Value("${experience.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${experience.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${experience.stream.fetch-size:500}")
+    private int streamFetchSize;
+
+    @Value("${experience.detailed.batch.max-size:100}")
+    private int maxBatchSize;
+
+    @Value("${experience.batch.max-size:1000}")
+    private int maxWriteBatchSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchChunkSize;
+
+    @Value("${experience.reactive.fallback-enabled:false}")
+    private boolean reactiveFallbackEnabled;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Get all experiences.
      *
      * @return List of all experiences.
      */
+    @Transactional(readOnly = true)
     public List<Experience> getAllExperiences() {
         logger.info("Getting all experiences");
         return experienceRepository.findAll();
     }
 
+    /**
+     * Get a page of experiences using keyset pagination on the experience id.
+     *
+     * @param after Id of the last experience of the previous page, null for the first page.
+     * @param size  Number of experiences to return, null for the default page size.
+     * @return List of experiences following the cursor, ordered by id.
+     * @throws HttpClientErrorException If the page size is not valid.
+     */
+    @Transactional(readOnly = true)
+    public List<Experience> getExperiencesPage(UUID after, Integer size) throws HttpClientErrorException {
+        int pageSize = resolvePageSize(size);
+
+        logger.info("Getting " + pageSize + " experiences after " + after);
+        PageRequest pageRequest = PageRequest.ofSize(pageSize);
+        if (after == null) {
+            return experienceRepository.findAllByOrderByIdAsc(pageRequest);
+        }
+        return experienceRepository.findByIdGreaterThanOrderByIdAsc(after, pageRequest);
+    }
+
+    /**
+     * Get a page of the experiences of a company, most recent first.
+     *
+     * @param companyId Company id.
+     * @param page      Page number, starting at 0, null for the first page.
+     * @param size      Number of experiences to return, null for the default page size.
+     * @return List of experiences of the company.
+     * @throws HttpClientErrorException If the page is not valid.
+     */
+    @Transactional(readOnly = true)
+    public List<Experience> getExperiencesByCompanyId(UUID companyId, Integer page, Integer size) throws HttpClientErrorException {
+        logger.info("Getting experiences of company " + companyId);
+        return experienceRepository.findByCompanyIdOrderByStartDateDescIdAsc(companyId, resolvePageRequest(page, size));
+    }
+
+    /**
+     * Get a page of the experiences of a job category, most recent first.
+     *
+     * @param jobCategoryId Job category id.
+     * @param page          Page number, starting at 0, null for the first page.
+     * @param size          Number of experiences to return, null for the default page size.
+     * @return List of experiences of the job category.
+     * @throws HttpClientErrorException If the page is not valid.
+     */
+    @Transactional(readOnly = true)
+    public List<Experience> getExperiencesByJobCategoryId(UUID jobCategoryId, Integer page, Integer size) throws HttpClientErrorException {
+        logger.info("Getting experiences of job category " + jobCategoryId);
+        return experienceRepository.findByJobCategoryIdOrderByStartDateDescIdAsc(jobCategoryId, resolvePageRequest(page, size));
+    }
+
+    /**
+     * Get the given fields of a page of experiences using keyset pagination on the experience id.
+     * Only the selected columns are read, without loading the experiences in the persistence context.
+     *
+     * @param after  Id of the last experience of the previous page, null for the first page.
+     * @param size   Number of experiences to return, null for the default page size.
+     * @param fields Fields to return.
+     * @return Selected fields of the experiences following the cursor, ordered by id.
+     * @throws HttpClientErrorException If the page size is not valid.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getExperienceFieldsPage(UUID after, Integer size, Set<ExperienceField> fields) throws HttpClientErrorException {
+        int pageSize = resolvePageSize(size);
+
+        logger.info("Getting fields " + fields + " of " + pageSize + " experiences after " + after);
+        return experienceRepository.findFieldsPage(fields, after, pageSize);
+    }
+
+    /**
+     * Get the given fields of a page of the experiences of a company, most recent first.
+     *
+     * @param companyId Company id.
+     * @param page      Page number, starting at 0, null for the first page.
+     * @param size      Number of experiences to return, null for the default page size.
+     * @param fields    Fields to return.
+     * @return Selected fields of the experiences of the company.
+     * @throws HttpClientErrorException If the page is not valid.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getExperienceFieldsByCompanyId(UUID companyId, Integer page, Integer size, Set<ExperienceField> fields) throws HttpClientErrorException {
+        logger.info("Getting fields " + fields + " of the experiences of company " + companyId);
+        return experienceRepository.findFieldsByCompanyId(fields, companyId, resolvePageRequest(page, size));
+    }
+
+    /**
+     * Get the given fields of a page of the experiences of a job category, most recent first.
+     *
+     * @param jobCategoryId Job category id.
+     * @param page          Page number, starting at 0, null for the first page.
+     * @param size          Number of experiences to return, null for the default page size.
+     * @param fields        Fields to return.
+     * @return Selected fields of the experiences of the job category.
+     * @throws HttpClientErrorException If the page is not valid.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getExperienceFieldsByJobCategoryId(UUID jobCategoryId, Integer page, Integer size, Set<ExperienceField> fields) throws HttpClientErrorException {
+        logger.info("Getting fields " + fields + " of the experiences of job category " + jobCategoryId);
+        return experienceRepository.findFieldsByJobCategoryId(fields, jobCategoryId, resolvePageRequest(page, size));
+    }
+
+    /**
+     * Check the requested page size, or use the default one.
+     *
+     * @param size Requested page size, null for the default page size.
+     * @return Page size.
+     * @throws HttpClientErrorException If the page size is not valid.
+     */
+    private int resolvePageSize(Integer size) throws HttpClientErrorException {
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Page size must be between 1 and " + maxPageSize);
+        }
+        return pageSize;
+    }
+
+    /**
+     * Check the requested page, or use the first one.
+     *
+     * @param page Requested page number, null for the first page.
+     * @param size Requested page size, null for the default page size.
+     * @return Page request.
+     * @throws HttpClientErrorException If the page is not valid.
+     */
+    private PageRequest resolvePageRequest(Integer page, Integer size) throws HttpClientErrorException {
+        int pageNumber = page == null ? 0 : page;
+        if (pageNumber < 0) {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Page number must be positive");
+        }
+        return PageRequest.of(pageNumber, resolvePageSize(size));
+    }
+
+    /**
+     * Stream all experiences to the given consumer without loading the whole table in memory.
+     *
+     * @param consumer Consumer called for each experience, ordered by id.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllExperiences(Consumer<Experience> consumer) {
+        logger.info("Streaming all experiences");
+        try (Stream<Experience> experiences = experienceRepository.streamAll(streamFetchSize)) {
+            experiences.forEach(consumer);
+        }
+    }
+
     /**
      * Get experience by id.
      *
@@ -47,6 +246,7 @@ public class ExperienceService {
      * @return Experience with the specified id.
      * @throws HttpClientErrorException If the experience is not found.
      */
+    @Transactional(readOnly = true)
     public Experience getExperienceById(UUID id) throws HttpClientErrorException {
         logger.info("Getting experience with id " + id);
         Experience experience = experienceRepository.findById(id).orElse(null);
@@ -73,42 +273,226 @@ public class ExperienceService {
         checkAttributes(experience);
 
         Experience newExperience = new Experience();
-        newExperience.setCompanyId(experience.getCompanyId());
-        newExperience.setJobTitle(experience.getJobTitle());
-        newExperience.setJobCategoryId(experience.getJobCategoryId());
-        newExperience.setStartDate(experience.getStartDate());
-        newExperience.setEndDate(experience.getEndDate());
+        copyAttributes(experience, newExperience);
 
-        return experienceRepository.save(newExperience);
+        Experience createdExperience = experienceRepository.save(newExperience);
+        cacheInvalidationService.experiencesWritten(List.of(createdExperience.getId()));
+        return createdExperience;
     }
 
     /**
      * Update an experience.
+     * The experience is usually read from the second-level cache, so that the update only costs its UPDATE statement, and the cached experience is updated with it.
+     * A bulk UPDATE query would also cost a single statement, but Hibernate evicts every cached experience after a bulk query on them.
+     * If the experience has a version, the update only applies if the stored experience still has this version.
+     * A cached experience with another version is read again from the database before answering 409, in case the cache is outdated.
      *
      * @param experience Experience to update.
      * @return Updated experience.
-     * @throws HttpClientErrorException If the experience is not found.
+     * @throws HttpClientErrorException If the experience is not found, or if its version is outdated.
      */
+    @Transactional
     public Experience updateExperience(ExperienceDTO experience) throws HttpClientErrorException {
         logger.info("Updating experience with id " + experience.getId());
 
         checkAttributes(experience);
 
-        Experience updatedExperience = experienceRepository.findById(experience.getId()).orElse(null);
-
+        Experience updatedExperience = experience.getId() == null ? null : experienceRepository.findById(experience.getId()).orElse(null);
         if (updatedExperience == null) {
             logger.error("Error while updating an experience: experience not found");
             // If the experience is not found, throw an exception
             throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "Experience not found");
         }
+        if (experience.getVersion() != null && !experience.getVersion().equals(updatedExperience.getVersion())) {
+            // The cached experience may be outdated, compare with the stored one before rejecting the update
+            try {
+                entityManager.refresh(updatedExperience);
+            } catch (EntityNotFoundException e) {
+                evictExperience(experience.getId());
+                logger.error("Error while updating an experience: experience not found");
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "Experience not found");
+            }
+        }
+        if (experience.getVersion() != null && !experience.getVersion().equals(updatedExperience.getVersion())) {
+            logger.error("Error while updating an experience: experience was modified concurrently");
+            // If the experience has been modified since it was read, throw an exception
+            throw new HttpClientErrorException(HttpStatus.CONFLICT, "Experience was modified concurrently");
+        }
 
-        updatedExperience.setCompanyId(experience.getCompanyId());
-        updatedExperience.setJobTitle(experience.getJobTitle());
-        updatedExperience.setJobCategoryId(experience.getJobCategoryId());
-        updatedExperience.setStartDate(experience.getStartDate());
-        updatedExperience.setEndDate(experience.getEndDate());
+        copyAttributes(experience, updatedExperience);
+        try {
+            experienceRepository.saveAndFlush(updatedExperience);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.error("Error while updating an experience: experience was modified concurrently");
+            // The cached experience is outdated, the next attempt reads it from the database
+            evictExperience(experience.getId());
+            throw new HttpClientErrorException(HttpStatus.CONFLICT, "Experience was modified concurrently");
+        }
 
-        return experienceRepository.save(updatedExperience);
+        cacheInvalidationService.experiencesWritten(List.of(updatedExperience.getId()));
+        return updatedExperience;
+    }
+
+    /**
+     * Create experiences in a single transaction, writing them in JDBC batches.
+     * Invalid experiences are reported in the results and do not prevent the others from being created.
+     *
+     * @param experiences Experiences to create.
+     * @return Result of each experience, in the order of the experiences.
+     * @throws HttpClientErrorException If there are too many experiences.
+     */
+    @Transactional
+    public List<ExperienceBatchResultDTO> createExperiences(List<ExperienceDTO> experiences) throws HttpClientErrorException {
+        checkBatchSize(experiences);
+        logger.info("Creating " + experiences.size() + " experiences");
+
+        List<ExperienceBatchResultDTO> results = new ArrayList<>(experiences.size());
+        List<Experience> chunk = new ArrayList<>(batchChunkSize);
+        for (int i = 0; i < experiences.size(); i++) {
+            ExperienceDTO experience = experiences.get(i);
+            try {
+                checkAttributes(experience);
+            } catch (HttpClientErrorException e) {
+                results.add(new ExperienceBatchResultDTO(i, e.getStatusCode().value(), e.getStatusText(), null));
+                continue;
+            }
+
+            Experience newExperience = new Experience();
+            copyAttributes(experience, newExperience);
+            results.add(new ExperienceBatchResultDTO(i, HttpStatus.OK.value(), null, newExperience));
+
+            chunk.add(newExperience);
+            if (chunk.size() == batchChunkSize) {
+                writeChunk(chunk);
+            }
+        }
+        writeChunk(chunk);
+
+        return results;
+    }
+
+    /**
+     * Update experiences in a single transaction, loading and writing them in JDBC batches.
+     * Invalid or unknown experiences are reported in the results and do not prevent the others from being updated.
+     * An experience whose id already appears earlier in the batch is rejected with 400,
+     * and an experience with a version only applies if the stored experience still has this version, otherwise it is reported with 409.
+     * An experience modified by another writer while its chunk is written fails the whole batch with 409,
+     * since the failed flush marks the transaction for rollback and the other chunks cannot be committed without it.
+     *
+     * @param experiences Experiences to update.
+     * @return Result of each experience, in the order of the experiences.
+     * @throws HttpClientErrorException If there are too many experiences, or if an experience was modified while the batch was written.
+     */
+    @Transactional
+    public List<ExperienceBatchResultDTO> updateExperiences(List<ExperienceDTO> experiences) throws HttpClientErrorException {
+        checkBatchSize(experiences);
+        logger.info("Updating " + experiences.size() + " experiences");
+
+        ExperienceBatchResultDTO[] results = new ExperienceBatchResultDTO[experiences.size()];
+        List<Integer> validIndexes = new ArrayList<>(experiences.size());
+        Set<UUID> batchIds = new HashSet<>();
+        for (int i = 0; i < experiences.size(); i++) {
+            try {
+                checkAttributes(experiences.get(i));
+                UUID id = experiences.get(i).getId();
+                if (id != null && !batchIds.add(id)) {
+                    throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Duplicate experience id");
+                }
+                validIndexes.add(i);
+            } catch (HttpClientErrorException e) {
+                results[i] = new ExperienceBatchResultDTO(i, e.getStatusCode().value(), e.getStatusText(), null);
+            }
+        }
+
+        for (int start = 0; start < validIndexes.size(); start += batchChunkSize) {
+            List<Integer> chunkIndexes = validIndexes.subList(start, Math.min(start + batchChunkSize, validIndexes.size()));
+
+            // Load the whole chunk with one query instead of one per experience
+            Set<UUID> ids = new HashSet<>();
+            chunkIndexes.forEach(i -> ids.add(experiences.get(i).getId()));
+            ids.remove(null);
+            Map<UUID, Experience> existingExperiences = new HashMap<>();
+            experienceRepository.findAllById(ids).forEach(experience -> existingExperiences.put(experience.getId(), experience));
+
+            List<Experience> chunk = new ArrayList<>(chunkIndexes.size());
+            for (int i : chunkIndexes) {
+                Experience updatedExperience = existingExperiences.get(experiences.get(i).getId());
+                if (updatedExperience == null) {
+                    results[i] = new ExperienceBatchResultDTO(i, HttpStatus.NOT_FOUND.value(), "Experience not found", null);
+                    continue;
+                }
+                Long version = experiences.get(i).getVersion();
+                if (version != null && !version.equals(updatedExperience.getVersion())) {
+                    // The cached experience may be outdated, compare with the stored one before rejecting the update
+                    try {
+                        entityManager.refresh(updatedExperience);
+                    } catch (EntityNotFoundException e) {
+                        evictExperience(updatedExperience.getId());
+                        results[i] = new ExperienceBatchResultDTO(i, HttpStatus.NOT_FOUND.value(), "Experience not found", null);
+                        continue;
+                    }
+                }
+                if (version != null && !version.equals(updatedExperience.getVersion())) {
+                    results[i] = new ExperienceBatchResultDTO(i, HttpStatus.CONFLICT.value(), "Experience was modified concurrently", null);
+                    continue;
+                }
+                copyAttributes(experiences.get(i), updatedExperience);
+                results[i] = new ExperienceBatchResultDTO(i, HttpStatus.OK.value(), null, updatedExperience);
+                chunk.add(updatedExperience);
+            }
+            try {
+                writeChunk(chunk);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                logger.error("Error while updating experiences in bulk: experience was modified concurrently");
+                // The batched statements do not tell which cached experience is outdated, the next attempt reads the chunk from the database
+                chunk.forEach(experience -> evictExperience(experience.getId()));
+                throw new HttpClientErrorException(HttpStatus.CONFLICT, "An experience was modified concurrently, no experience of the batch was updated");
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Check that a batch is not empty and not too large.
+     *
+     * @param experiences Batch of experiences.
+     * @throws HttpClientErrorException If the batch is empty or too large.
+     */
+    private void checkBatchSize(List<ExperienceDTO> experiences) throws HttpClientErrorException {
+        if (experiences == null || experiences.isEmpty() || experiences.size() > maxWriteBatchSize) {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Between 1 and " + maxWriteBatchSize + " experiences are expected");
+        }
+    }
+
+    /**
+     * Write a chunk of experiences, invalidate them on the other replicas, and clear the persistence context so that it does not grow with the batch.
+     *
+     * @param chunk Experiences to write, emptied afterwards.
+     */
+    private void writeChunk(List<Experience> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        experienceRepository.saveAll(chunk);
+        experienceRepository.flush();
+        cacheInvalidationService.experiencesWritten(chunk.stream().map(Experience::getId).toList());
+        entityManager.clear();
+        chunk.clear();
+    }
+
+    /**
+     * Copy the attributes of an experience DTO to an experience.
+     *
+     * @param source Experience DTO to copy.
+     * @param target Experience to update.
+     */
+    private void copyAttributes(ExperienceDTO source, Experience target) {
+        target.setCompanyId(source.getCompanyId());
+        target.setJobTitle(source.getJobTitle());
+        target.setJobCategoryId(source.getJobCategoryId());
+        target.setStartDate(source.getStartDate());
+        target.setEndDate(source.getEndDate());
     }
 
     /**
@@ -118,33 +502,57 @@ public class ExperienceService {
      * @throws HttpClientErrorException If the experience does not have all the required attributes.
      */
     private void checkAttributes(ExperienceDTO experience) throws HttpClientErrorException {
+        if (experience == null) {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Missing experience");
+        }
         if (experience.getJobTitle() == null || experience.getCompanyId() == null || experience.getJobCategoryId() == null || experience.getStartDate() == null || experience.getEndDate() == null) {
             throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Missing attributes");
         }
-        if (experience.getStartDate().after(experience.getEndDate())) {
+        if (experience.getStartDate().isAfter(experience.getEndDate())) {
             throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Start date must be before end date");
         }
     }
 
     /**
      * Delete an experience.
+     * The experience is usually read from the second-level cache, so that the deletion only costs its DELETE statement, and the cached experience is evicted with it.
+     * As for the updates, a bulk DELETE query would evict every cached experience.
      *
      * @param id Experience id.
-     * @throws NotFoundException If the experience is not found.
+     * @throws HttpClientErrorException If the experience is not found, or if it was modified concurrently.
      */
-    public void deleteExperience(UUID id) throws NotFoundException {
+    @Transactional
+    public void deleteExperience(UUID id) throws HttpClientErrorException {
         logger.info("Deleting experience with id " + id);
 
-        Experience experience = getExperienceById(id);
-
+        Experience experience = experienceRepository.findById(id).orElse(null);
         if (experience == null) {
             logger.error("Error while deleting an experience: experience not found");
             // If the experience is not found, throw an exception
-            throw new NotFoundException("Experience not found");
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "Experience not found");
         }
 
-        logger.debug("Deleting experience with id " + id);
-        experienceRepository.delete(experience);
+        try {
+            experienceRepository.delete(experience);
+            experienceRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.error("Error while deleting an experience: experience was modified concurrently");
+            // The cached experience is outdated, the next attempt reads it from the database
+            evictExperience(id);
+            throw new HttpClientErrorException(HttpStatus.CONFLICT, "Experience was modified concurrently");
+        }
+
+        cacheInvalidationService.experiencesWritten(List.of(id));
+        logger.debug("Deleted experience with id " + id);
+    }
+
+    /**
+     * Evict an experience from the second-level cache.
+     *
+     * @param id Experience id.
+     */
+    private void evictExperience(UUID id) {
+        entityManager.getEntityManagerFactory().getCache().evict(Experience.class, id);
     }
 
     /**
@@ -169,26 +577,237 @@ public class ExperienceService {
         detailedExperience.setJobTitle(experience.getJobTitle());
         detailedExperience.setStartDate(experience.getStartDate());
         detailedExperience.setEndDate(experience.getEndDate());
+        detailedExperience.setVersion(experience.getVersion());
+
+        // Both lookups are independent, run them concurrently so the latency is the one of the slowest
+        long companyDeadline = downstreamCallService.deadline(downstreamEndpoints.get("company").getTimeout());
+        long jobCategoryDeadline = downstreamCallService.deadline(downstreamEndpoints.get("job-category").getTimeout());
+        Future<CompanyDTO> companyFuture = downstreamCallService.submit(() -> companyService.getCompanyById(experience.getCompanyId(), token));
+        Future<JobCategoryDTO> jobCategoryFuture;
+        try {
+            jobCategoryFuture = downstreamCallService.submit(() -> jobCategoryService.getJobCategoryById(experience.getJobCategoryId(), token));
+        } catch (HttpClientErrorException e) {
+            // The executor is saturated, do not let the company lookup run for nothing
+            downstreamCallService.cancel(companyFuture);
+            throw e;
+        }
+
+        try {
+            CompanyDTO companyById = downstreamCallService.await(companyFuture, companyDeadline, "company");
 
-        CompanyDTO companyById = companyService.getCompanyById(experience.getCompanyId(), token);
+            if (companyById == null) {
+                logger.error("Error while getting a company: company not found");
+                // If the company is not found, throw an exception
+                throw new NotFoundException("Company not found");
+            }
 
-        if (companyById == null) {
-            logger.error("Error while getting a company: company not found");
-            // If the company is not found, throw an exception
-            throw new NotFoundException("Company not found");
+            detailedExperience.setCompany(companyById);
+
+            JobCategoryDTO jobCategoryById = downstreamCallService.await(jobCategoryFuture, jobCategoryDeadline, "job category");
+
+            if (jobCategoryById == null) {
+                logger.error("Error while getting a job category: job category not found");
+                // If the job category is not found, throw an exception
+                throw new NotFoundException("Job category not found");
+            }
+
+            detailedExperience.setJobCategory(jobCategoryById);
+        } finally {
+            // Do not let a lookup run if the other one failed
+            downstreamCallService.cancel(companyFuture, jobCategoryFuture);
         }
 
-        detailedExperience.setCompany(companyById);
+        return detailedExperience;
+    }
 
-        JobCategoryDTO jobCategoryById = jobCategoryService.getJobCategoryById(experience.getJobCategoryId(), token);
+    /**
+     * Get detailed experience by id without holding a thread while the downstream APIs answer.
+     * The company and the job category are fetched concurrently and zipped, each one with the downstream timeout.
+     * When the fallback is enabled, a lookup that times out or fails on the server side is replaced by a resource holding only its id,
+     * and the detailed experience is marked as degraded.
+     *
+     * @param id    Experience id.
+     * @param token Token of the user.
+     * @return Detailed experience with the specified id, or an HttpClientErrorException if it cannot be built.
+     */
+    public Mono<DetailedExperienceDTO> getDetailedExperienceByIdReactive(UUID id, String token) {
+        Mono<DetailedExperienceDTO> detailedExperience = Mono.fromCallable(() -> getExperienceById(id))
+                // The repository is blocking, keep it off the threads of the HTTP client
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(experience -> {
+                    AtomicBoolean degraded = new AtomicBoolean();
+                    return Mono.zip(
+                            withTimeoutAndFallback(companyService.getCompanyByIdReactive(experience.getCompanyId(), token), "company", "company", () -> {
+                                degraded.set(true);
+                                CompanyDTO company = new CompanyDTO();
+                                company.setId(experience.getCompanyId());
+                                return company;
+                            }),
+                            withTimeoutAndFallback(jobCategoryService.getJobCategoryByIdReactive(experience.getJobCategoryId(), token), "job-category", "job category", () -> {
+                                degraded.set(true);
+                                JobCategoryDTO jobCategory = new JobCategoryDTO();
+                                jobCategory.setId(experience.getJobCategoryId());
+                                return jobCategory;
+                            })
+                    ).map(lookups -> {
+                        DetailedExperienceDTO result = toDetailedExperience(experience, lookups.getT1(), lookups.getT2());
+                        result.setDegraded(degraded.get());
+                        return result;
+                    });
+                });
+
+        // Timed on completion, the timed aspect would only see the assembly of the pipeline
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return detailedExperience
+                    .doOnSuccess(experience -> stopTimer(sample, "getDetailedExperienceByIdReactive", null))
+                    .doOnError(e -> stopTimer(sample, "getDetailedExperienceByIdReactive", e));
+        });
+    }
+
+    /**
+     * Record the duration of a reactive method with the same metric and tags as the timed aspect.
+     *
+     * @param sample Sample started when the method was subscribed.
+     * @param method Name of the method.
+     * @param error  Error of the method, null if it succeeded.
+     */
+    private void stopTimer(Timer.Sample sample, String method, Throwable error) {
+        sample.stop(Timer.builder("experience.service")
+                .description("Time spent in the experience service methods")
+                .tag("class", ExperienceService.class.getName())
+                .tag("method", method)
+                .tag("exception", error == null ? "none" : error.getClass().getSimpleName())
+                .register(meterRegistry));
+    }
 
-        if (jobCategoryById == null) {
-            logger.error("Error while getting a job category: job category not found");
-            // If the job category is not found, throw an exception
-            throw new NotFoundException("Job category not found");
+    /**
+     * Bound a downstream lookup by the timeout of the downstream API, and replace it by a fallback if it fails on the server side.
+     * Client errors, such as a resource not found, are never replaced.
+     *
+     * @param lookup     Downstream lookup.
+     * @param downstream Name of the downstream API in the endpoint registry.
+     * @param target     Name of the downstream API, for the logs.
+     * @param fallback   Supplies the resource to use if the lookup failed.
+     * @param <T>        Type of the resource.
+     * @return Lookup with timeout and fallback.
+     */
+    private <T> Mono<T> withTimeoutAndFallback(Mono<T> lookup, String downstream, String target, Supplier<T> fallback) {
+        Mono<T> timedLookup = lookup.timeout(downstreamCallService.timeout(downstreamEndpoints.get(downstream).getTimeout()),
+                Mono.error(() -> new HttpClientErrorException(HttpStatus.GATEWAY_TIMEOUT, "Timeout while calling the " + target + " API")));
+        if (!reactiveFallbackEnabled) {
+            return timedLookup;
+        }
+        return timedLookup.onErrorResume(
+                e -> !(e instanceof HttpClientErrorException clientErrorException && clientErrorException.getStatusCode().is4xxClientError()),
+                e -> {
+                    logger.warn("Falling back for the " + target + " API: " + e.getMessage());
+                    return Mono.fromSupplier(fallback);
+                });
+    }
+
+    /**
+     * Get detailed experiences by ids.
+     * Experiences are loaded with a single query, and each distinct company and job category is fetched once, concurrently.
+     * An experience whose company or job category is not found is skipped, like an experience that is not found,
+     * so that one deleted company does not hide the other experiences.
+     *
+     * @param ids   Experience ids.
+     * @param token Token of the user.
+     * @return Detailed experiences found, in the order of the ids.
+     * @throws HttpClientErrorException If there are too many ids or if a lookup failed for another reason than a resource not found.
+     */
+    public List<DetailedExperienceDTO> getDetailedExperiencesByIds(List<UUID> ids, String token) throws HttpClientErrorException {
+        if (ids == null || ids.size() > maxBatchSize) {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Between 0 and " + maxBatchSize + " ids are expected");
         }
+        logger.info("Getting " + ids.size() + " detailed experiences");
 
-        detailedExperience.setJobCategory(jobCategoryById);
+        Map<UUID, Experience> experiences = new HashMap<>();
+        for (Experience experience : experienceRepository.findAllById(new LinkedHashSet<>(ids))) {
+            experiences.put(experience.getId(), experience);
+        }
+
+        long companyDeadline = downstreamCallService.deadline(downstreamEndpoints.get("company").getTimeout());
+        long jobCategoryDeadline = downstreamCallService.deadline(downstreamEndpoints.get("job-category").getTimeout());
+        Map<UUID, Future<CompanyDTO>> companyFutures = new HashMap<>();
+        Map<UUID, Future<JobCategoryDTO>> jobCategoryFutures = new HashMap<>();
+        try {
+            for (Experience experience : experiences.values()) {
+                companyFutures.computeIfAbsent(experience.getCompanyId(), companyId -> downstreamCallService.submit(() -> companyService.getCompanyById(companyId, token)));
+                jobCategoryFutures.computeIfAbsent(experience.getJobCategoryId(), jobCategoryId -> downstreamCallService.submit(() -> jobCategoryService.getJobCategoryById(jobCategoryId, token)));
+            }
+
+            Map<UUID, CompanyDTO> companies = awaitLookups(companyFutures, companyDeadline, "company");
+            Map<UUID, JobCategoryDTO> jobCategories = awaitLookups(jobCategoryFutures, jobCategoryDeadline, "job category");
+
+            List<DetailedExperienceDTO> detailedExperiences = new ArrayList<>(experiences.size());
+            for (UUID id : new LinkedHashSet<>(ids)) {
+                Experience experience = experiences.get(id);
+                if (experience == null) {
+                    logger.debug("Skipping experience with id " + id + ": experience not found");
+                    continue;
+                }
+                if (companies.get(experience.getCompanyId()) == null || jobCategories.get(experience.getJobCategoryId()) == null) {
+                    logger.warn("Skipping experience with id " + id + ": company or job category not found");
+                    continue;
+                }
+                detailedExperiences.add(toDetailedExperience(experience, companies.get(experience.getCompanyId()), jobCategories.get(experience.getJobCategoryId())));
+            }
+            return detailedExperiences;
+        } finally {
+            // Do not let the lookups run if one of them failed
+            companyFutures.values().forEach(downstreamCallService::cancel);
+            jobCategoryFutures.values().forEach(downstreamCallService::cancel);
+        }
+    }
+
+    /**
+     * Wait for the lookups of a batch, leaving out the resources that are not found.
+     *
+     * @param futures  Futures of the lookups, by resource id.
+     * @param deadline Deadline of the lookups.
+     * @param target   Name of the called API.
+     * @param <T>      Type of the resources.
+     * @return Found resources, by id.
+     * @throws HttpClientErrorException If a lookup failed for another reason than a resource not found.
+     */
+    private <T> Map<UUID, T> awaitLookups(Map<UUID, Future<T>> futures, long deadline, String target) throws HttpClientErrorException {
+        Map<UUID, T> resources = new HashMap<>();
+        for (Map.Entry<UUID, Future<T>> entry : futures.entrySet()) {
+            try {
+                T resource = downstreamCallService.await(entry.getValue(), deadline, target);
+                if (resource != null) {
+                    resources.put(entry.getKey(), resource);
+                }
+            } catch (HttpClientErrorException e) {
+                // A missing resource only concerns its experiences, the other errors concern the whole batch
+                if (e.getStatusCode() != HttpStatus.NOT_FOUND) {
+                    throw e;
+                }
+            }
+        }
+        return resources;
+    }
+
+    /**
+     * Build a detailed experience from an experience and its company and job category.
+     *
+     * @param experience  Experience.
+     * @param company     Company of the experience.
+     * @param jobCategory Job category of the experience.
+     * @return Detailed experience.
+     */
+    private DetailedExperienceDTO toDetailedExperience(Experience experience, CompanyDTO company, JobCategoryDTO jobCategory) {
+        DetailedExperienceDTO detailedExperience = new DetailedExperienceDTO();
+
+        detailedExperience.setId(experience.getId());
+        detailedExperience.setJobTitle(experience.getJobTitle());
+        detailedExperience.setStartDate(experience.getStartDate());
+        detailedExperience.setEndDate(experience.getEndDate());
+        detailedExperience.setVersion(experience.getVersion());
+        detailedExperience.setCompany(company);
+        detailedExperience.setJobCategory(jobCategory);
 
         return detailedExperience;
     }
@@ -0,0 +1,155 @@
+package fr.polytech.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fr.polytech.model.DetailedExperienceDTO;
+import fr.polytech.model.Experience;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+
+@Service
+public class HttpCacheService {
+
+    /**
+     * Number of bytes of the digest kept in the entity tags.
+     */
+    private static final int TAG_BYTES = 16;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${experience.http.cache-control.max-age:0s}")
+    private Duration maxAge;
+
+    @Value("${experience.http.cache-control.detailed-max-age:0s}")
+    private Duration detailedMaxAge;
+
+    @Value("${experience.http.cache-control.private:true}")
+    private boolean cachePrivate;
+
+    /**
+     * Digests of the resources fetched from the downstream APIs, by instance.
+     * The lookup caches hand out the same instance until the resource is fetched again, so each version is digested once.
+     */
+    private final Cache<Object, byte[]> fingerprints = Caffeine.newBuilder()
+            .weakKeys()
+            .build();
+
+    /**
+     * Get the strong entity tag of an experience, derived from its version.
+     *
+     * @param experience Experience.
+     * @return Entity tag, or null if the experience has no id or no version.
+     */
+    public String experienceETag(Experience experience) {
+        if (experience.getId() == null || experience.getVersion() == null) {
+            return null;
+        }
+        return "\"" + experience.getId() + "-" + experience.getVersion() + "\"";
+    }
+
+    /**
+     * Get the strong entity tag of a detailed experience, derived from the version of the experience and the content of its company and job category.
+     *
+     * @param experience Detailed experience.
+     * @return Entity tag, or null if the experience has no id or no version.
+     */
+    public String detailedExperienceETag(DetailedExperienceDTO experience) {
+        if (experience.getId() == null || experience.getVersion() == null) {
+            return null;
+        }
+        MessageDigest digest = sha256();
+        digest.update(uuidBytes(experience.getId()));
+        digest.update(ByteBuffer.allocate(Long.BYTES).putLong(experience.getVersion()).array());
+        digest.update(fingerprint(experience.getCompany()));
+        digest.update(fingerprint(experience.getJobCategory()));
+        byte[] tag = new byte[TAG_BYTES];
+        System.arraycopy(digest.digest(), 0, tag, 0, TAG_BYTES);
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(tag) + "\"";
+    }
+
+    /**
+     * Get the Cache-Control header of the experiences.
+     * Without a max age, clients must revalidate their copy with the entity tag on each use.
+     *
+     * @return Cache-Control of the experiences.
+     */
+    public CacheControl cacheControl() {
+        return cacheControl(maxAge);
+    }
+
+    /**
+     * Get the Cache-Control header of the detailed experiences.
+     *
+     * @return Cache-Control of the detailed experiences.
+     */
+    public CacheControl detailedCacheControl() {
+        return cacheControl(detailedMaxAge);
+    }
+
+    /**
+     * Build a Cache-Control header.
+     *
+     * @param age Time for which a copy can be used without revalidation.
+     * @return Cache-Control.
+     */
+    private CacheControl cacheControl(Duration age) {
+        CacheControl cacheControl = age.isZero() ? CacheControl.noCache() : CacheControl.maxAge(age).mustRevalidate();
+        return cachePrivate ? cacheControl.cachePrivate() : cacheControl.cachePublic();
+    }
+
+    /**
+     * Get the digest of the content of a resource fetched from a downstream API.
+     *
+     * @param resource Resource, may be null.
+     * @return Digest of the resource.
+     */
+    private byte[] fingerprint(Object resource) {
+        if (resource == null) {
+            return new byte[0];
+        }
+        return fingerprints.get(resource, key -> {
+            try {
+                return sha256().digest(objectMapper.writeValueAsBytes(key));
+            } catch (JsonProcessingException e) {
+                // Fall back to a tag that never matches a previous one
+                return sha256().digest(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    /**
+     * Get the bytes of a UUID.
+     *
+     * @param id UUID.
+     * @return 16 bytes of the UUID.
+     */
+    private static byte[] uuidBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    /**
+     * Create a SHA-256 digest.
+     *
+     * @return MessageDigest.
+     */
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
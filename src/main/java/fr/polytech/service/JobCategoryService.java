@@ -1,5 +1,7 @@
 package fr.polytech.service;
 
+import fr.polytech.cache.LookupCache;
+import fr.polytech.config.DownstreamEndpoints;
 import fr.polytech.model.JobCategoryDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
@@ -18,16 +21,37 @@ public class JobCategoryService {
     @Autowired
     private ApiService apiService;
 
+    @Autowired
+    private ReactiveApiService reactiveApiService;
+
+    @Autowired
+    private LookupCache<JobCategoryDTO> jobCategoryCache;
+
+    @Autowired
+    private DownstreamEndpoints downstreamEndpoints;
+
     /**
      * Get job category by id.
      * @param id Job category id
      * @param token Access token
-     * @return Job category with the specified id
+     * @return Job category with the specified id, from the cache if present
      * @throws HttpClientErrorException if an error occurs while calling the API
      */
     public JobCategoryDTO getJobCategoryById(UUID id, String token) throws HttpClientErrorException {
-        String uri = System.getenv("JOB_CATEGORY_API_URI") + "/" + id;
-        return apiService.makeApiCall(uri, HttpMethod.GET, JobCategoryDTO.class, token);
+        String uri = downstreamEndpoints.get("job-category").uri(id);
+        return jobCategoryCache.get(id, () -> apiService.makeApiCall("job-category", uri, HttpMethod.GET, JobCategoryDTO.class, token));
     }
 
+    /**
+     * Get job category by id without blocking.
+     *
+     * @param id    Job category id
+     * @param token Access token
+     * @return Job category with the specified id, from the cache if present, or an HttpClientErrorException if an error occurs while calling the API
+     */
+    public Mono<JobCategoryDTO> getJobCategoryByIdReactive(UUID id, String token) {
+        String uri = downstreamEndpoints.get("job-category").uri(id);
+        // The pending fetch is shared with the other callers, do not cancel it when this subscriber goes away
+        return Mono.fromFuture(() -> jobCategoryCache.getAsync(id, key -> reactiveApiService.makeApiCall("job-category", uri, HttpMethod.GET, JobCategoryDTO.class, token).toFuture()), true);
+    }
 }
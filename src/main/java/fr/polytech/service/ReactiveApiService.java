@@ -0,0 +1,83 @@
+package fr.polytech.service;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveApiService {
+
+    private final Logger logger = LoggerFactory.getLogger(ReactiveApiService.class);
+
+    @Autowired
+    private WebClient webClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private DownstreamMetrics downstreamMetrics;
+
+    /**
+     * Make a non-blocking API call protected by the circuit breaker of the downstream API.
+     * The circuit breaker is shared with ApiService, so both paths see the same downstream health.
+     *
+     * @param downstream   Name of the downstream API, selects its circuit breaker
+     * @param uri          URI of the API
+     * @param method       HTTP method
+     * @param responseType Class of the response
+     * @param token        String - Access token from the user who adds the review
+     * @param <T>          Type of the response
+     * @return Response, emitted when the call completes, or an HttpClientErrorException with status 503 if the circuit breaker is open
+     */
+    public <T> Mono<T> makeApiCall(String downstream, String uri, HttpMethod method, Class<T> responseType, String token) {
+        Mono<T> measuredCall = Mono.defer(() -> {
+            Timer.Sample sample = downstreamMetrics.start();
+            return makeApiCall(uri, method, responseType, token)
+                    .doOnSuccess(response -> downstreamMetrics.record(sample, downstream, null))
+                    .doOnError(e -> downstreamMetrics.record(sample, downstream, e));
+        });
+        return measuredCall
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(downstream)))
+                .onErrorMap(CallNotPermittedException.class, e -> {
+                    downstreamMetrics.recordRejection(downstream, e);
+                    logger.warn("Circuit breaker of the {} API is open, failing fast", downstream);
+                    return new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE, "Circuit breaker of the " + downstream + " API is open");
+                });
+    }
+
+    /**
+     * Make a non-blocking API call.
+     * No thread is held while waiting for the response, the error statuses are signalled as HttpClientErrorException like with ApiService.
+     *
+     * @param uri          URI of the API
+     * @param method       HTTP method
+     * @param responseType Class of the response
+     * @param token        String - Access token from the user who adds the review
+     * @param <T>          Type of the response
+     * @return Response, emitted when the call completes
+     */
+    public <T> Mono<T> makeApiCall(String uri, HttpMethod method, Class<T> responseType, String token) {
+        return Mono.defer(() -> {
+            logger.info("Making non-blocking API call to {}", uri);
+            return webClient.method(method)
+                    .uri(uri)
+                    .headers(headers -> headers.addAll(ApiService.createHeaders(token)))
+                    .retrieve()
+                    .onStatus(status -> status.value() != HttpStatus.OK.value(), response -> response.releaseBody()
+                            .then(Mono.error(() -> new HttpClientErrorException(response.statusCode()))))
+                    .bodyToMono(responseType)
+                    .switchIfEmpty(Mono.error(() -> new HttpClientErrorException(HttpStatus.BAD_GATEWAY, "Empty response from " + uri)));
+        });
+    }
+}
@@ -0,0 +1,204 @@
+package fr.polytech.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LookupCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final LookupCache<String> cache = new LookupCache<>("test", Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofHours(1), 100, Duration.ofSeconds(5), meterRegistry);
+
+    /**
+     * Test that a cached resource is not fetched again.
+     */
+    @Test
+    public void testGetCachedResource() {
+        UUID id = UUID.randomUUID();
+        AtomicInteger fetches = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals("value", cache.get(id, () -> {
+                fetches.incrementAndGet();
+                return "value";
+            }));
+        }
+        assertEquals(1, fetches.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "test").tag("result", "hit").functionCounter().count());
+    }
+
+    /**
+     * Test that concurrent misses on the same key trigger a single fetch.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testConcurrentMissesFetchOnce() throws Exception {
+        UUID id = UUID.randomUUID();
+        AtomicInteger fetches = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.get(id, () -> {
+                    fetches.incrementAndGet();
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "value";
+                });
+            }));
+        }
+        start.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, fetches.get());
+    }
+
+    /**
+     * Test that concurrent non-blocking misses share the same pending fetch, and that a not found resource fails with a 404.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testGetAsyncSharesPendingFetch() throws Exception {
+        UUID id = UUID.randomUUID();
+        AtomicInteger fetches = new AtomicInteger();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = cache.getAsync(id, key -> {
+            fetches.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<String> second = cache.getAsync(id, key -> {
+            fetches.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        pending.complete("value");
+
+        assertEquals("value", first.get(5, TimeUnit.SECONDS));
+        assertEquals("value", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, fetches.get());
+
+        UUID missingId = UUID.randomUUID();
+        CompletableFuture<String> missing = cache.getAsync(missingId, key -> CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> missing.get(5, TimeUnit.SECONDS));
+        assertEquals(HttpStatus.NOT_FOUND, ((HttpClientErrorException) exception.getCause()).getStatusCode());
+    }
+
+    /**
+     * Test that the last known value is served when the downstream API fails, but not when the resource is not found.
+     */
+    @Test
+    public void testServeStaleValueOnFailure() {
+        LookupCache<String> expiringCache = new LookupCache<>("stale", Duration.ZERO, Duration.ZERO, Duration.ofHours(1), 100, Duration.ofSeconds(5), meterRegistry);
+        UUID id = UUID.randomUUID();
+
+        assertEquals("value", expiringCache.get(id, () -> "value"));
+        assertEquals("value", expiringCache.get(id, () -> {
+            throw new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        }));
+        assertEquals(1, meterRegistry.get("cache.stale.hits").tag("cache", "stale").counter().count());
+
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> expiringCache.get(id, () -> {
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+        }));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    /**
+     * Test that a not found resource is cached and reported as not found.
+     */
+    @Test
+    public void testNotFoundIsCached() {
+        UUID id = UUID.randomUUID();
+        AtomicInteger fetches = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> cache.get(id, () -> {
+                fetches.incrementAndGet();
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }));
+            assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        }
+        assertEquals(1, fetches.get());
+    }
+
+    /**
+     * Test that other errors are not cached.
+     */
+    @Test
+    public void testErrorIsNotCached() {
+        UUID id = UUID.randomUUID();
+
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> cache.get(id, () -> {
+            throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED);
+        }));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+        assertEquals("value", cache.get(id, () -> "value"));
+    }
+
+    /**
+     * Test that an Error thrown by the fetch is propagated and releases the pending fetch.
+     */
+    @Test
+    public void testErrorReleasesPendingFetch() {
+        UUID id = UUID.randomUUID();
+
+        assertThrows(StackOverflowError.class, () -> cache.get(id, () -> {
+            throw new StackOverflowError();
+        }));
+        assertEquals("value", cache.get(id, () -> "value"));
+    }
+
+    /**
+     * Test that a thread waiting for the fetch of another thread gives up after the wait timeout.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testWaitForPendingFetchTimesOut() throws Exception {
+        LookupCache<String> timeoutCache = new LookupCache<>("timeout", Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ZERO, 100, Duration.ofMillis(100), meterRegistry);
+        UUID id = UUID.randomUUID();
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Future<String> first = executor.submit(() -> timeoutCache.get(id, () -> {
+            fetching.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "value";
+        }));
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> timeoutCache.get(id, () -> "other"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+
+        release.countDown();
+        assertEquals("value", first.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,85 @@
+package fr.polytech.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostgresInvalidationBusTest {
+
+    /**
+     * Test that an invalidation is decoded as it was encoded.
+     */
+    @Test
+    public void testPayloadRoundTrip() {
+        CacheInvalidation invalidation = new CacheInvalidation(CacheInvalidation.EXPERIENCE, List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        List<String> payloads = PostgresInvalidationBus.toPayloads("origin", invalidation);
+
+        assertEquals(1, payloads.size());
+        String[] parts = payloads.get(0).split("\\|", 3);
+        assertEquals("origin", parts[0]);
+        assertEquals(invalidation, PostgresInvalidationBus.fromPayload(parts[1], parts[2]));
+    }
+
+    /**
+     * Test that the invalidation of every cache is decoded as such.
+     */
+    @Test
+    public void testPayloadOfAllCaches() {
+        String[] parts = PostgresInvalidationBus.toPayloads("origin", CacheInvalidation.ALL).get(0).split("\\|", 3);
+
+        assertEquals(CacheInvalidation.ALL, PostgresInvalidationBus.fromPayload(parts[1], parts[2]));
+    }
+
+    /**
+     * Test that many keys are split in notifications within the payload limit of Postgres.
+     */
+    @Test
+    public void testSplitLargeInvalidation() {
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            keys.add(UUID.randomUUID());
+        }
+
+        List<String> payloads = PostgresInvalidationBus.toPayloads(UUID.randomUUID().toString(), new CacheInvalidation(CacheInvalidation.EXPERIENCE, keys));
+
+        assertEquals(7, payloads.size());
+        List<UUID> decodedKeys = new ArrayList<>();
+        for (String payload : payloads) {
+            assertTrue(payload.length() < 8000);
+            String[] parts = payload.split("\\|", 3);
+            decodedKeys.addAll(PostgresInvalidationBus.fromPayload(parts[1], parts[2]).keys());
+        }
+        assertEquals(keys, decodedKeys);
+    }
+
+    /**
+     * Test that a channel name that could not be listened to is rejected.
+     */
+    @Test
+    public void testRejectInvalidChannel() {
+        assertThrows(IllegalArgumentException.class, () -> new PostgresInvalidationBus(null, "jdbc:postgresql://localhost/experience", "user", "password",
+                "experience; DROP TABLE experience", Duration.ofMillis(500), Duration.ofSeconds(5)));
+    }
+
+    /**
+     * Test that an invalid notification is skipped, and that the next ones are still delivered.
+     */
+    @Test
+    public void testSkipInvalidNotification() {
+        PostgresInvalidationBus invalidationBus = new PostgresInvalidationBus(null, "jdbc:postgresql://localhost/experience", "user", "password", "experience_cache_invalidation", Duration.ofMillis(500), Duration.ofSeconds(5));
+        List<CacheInvalidation> received = new ArrayList<>();
+        invalidationBus.subscribe(received::add);
+        UUID id = UUID.randomUUID();
+
+        assertDoesNotThrow(() -> invalidationBus.receive("company-api|company|not-a-uuid"));
+        invalidationBus.receive("company-api|company|" + id);
+
+        assertEquals(List.of(new CacheInvalidation(CacheInvalidation.COMPANY, List.of(id))), received);
+    }
+}
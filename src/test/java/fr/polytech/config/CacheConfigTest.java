@@ -0,0 +1,22 @@
+package fr.polytech.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CacheConfigTest {
+
+    /**
+     * Test that the Postgres invalidation bus is only selected by default when the datasource is PostgreSQL.
+     */
+    @Test
+    public void testSelectInvalidationBus() {
+        assertEquals("postgres", CacheConfig.selectInvalidationBus(new MockEnvironment().withProperty("spring.datasource.url", "jdbc:postgresql://localhost/experience")));
+        assertEquals("memory", CacheConfig.selectInvalidationBus(new MockEnvironment().withProperty("spring.datasource.url", "jdbc:h2:mem:experience")));
+        assertEquals("memory", CacheConfig.selectInvalidationBus(new MockEnvironment()));
+        assertEquals("postgres", CacheConfig.selectInvalidationBus(new MockEnvironment()
+                .withProperty("experience.cache.invalidation.bus", "postgres")
+                .withProperty("spring.datasource.url", "jdbc:h2:mem:experience")));
+    }
+}
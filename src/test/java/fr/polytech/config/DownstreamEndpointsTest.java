@@ -0,0 +1,78 @@
+package fr.polytech.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "experience.downstream.endpoints.company.timeout=2s")
+@ActiveProfiles("test")
+public class DownstreamEndpointsTest {
+
+    @Autowired
+    private DownstreamEndpoints downstreamEndpoints;
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    /**
+     * Test that the endpoints are bound from the properties, and that unknown endpoints get the default settings.
+     */
+    @Test
+    public void testBindEndpoints() {
+        UUID id = UUID.randomUUID();
+        assertEquals("http://company-api/api/v1/company/" + id, downstreamEndpoints.get("company").uri(id));
+        assertEquals(Duration.ofSeconds(2), downstreamEndpoints.get("company").getTimeout());
+        assertEquals(0, downstreamEndpoints.get("company").getRetries());
+
+        assertNull(downstreamEndpoints.get("unknown").getTimeout());
+        assertThrows(IllegalStateException.class, () -> downstreamEndpoints.get("unknown").uri(id));
+    }
+
+    /**
+     * Test that a configuration refresh compiles the new URI template.
+     */
+    @Test
+    public void testRefreshEndpoints() {
+        UUID id = UUID.randomUUID();
+        environment.getPropertySources().addFirst(new MapPropertySource("refreshed", Map.of(
+                "experience.downstream.endpoints.job-category.uri", "http://job-category-api/api/v2/job-category/{id}",
+                "experience.downstream.endpoints.job-category.retries", "2")));
+        try {
+            applicationContext.publishEvent(new EnvironmentChangeEvent(applicationContext, Set.of("experience.downstream.endpoints.job-category.uri")));
+
+            assertEquals("http://job-category-api/api/v2/job-category/" + id, downstreamEndpoints.get("job-category").uri(id));
+            assertEquals(2, downstreamEndpoints.get("job-category").getRetries());
+        } finally {
+            environment.getPropertySources().remove("refreshed");
+            applicationContext.publishEvent(new EnvironmentChangeEvent(applicationContext, Set.of("experience.downstream.endpoints.job-category.uri")));
+        }
+    }
+
+    /**
+     * Test that the variables are appended in order, and that the values other than UUIDs are encoded.
+     */
+    @Test
+    public void testExpandTemplate() {
+        UUID id = UUID.randomUUID();
+        CompiledUriTemplate template = new CompiledUriTemplate("http://api/{type}/{id}/details");
+
+        assertEquals("http://api/job%20category/" + id + "/details", template.expand("job category", id));
+        assertThrows(IllegalArgumentException.class, () -> template.expand(id));
+        assertThrows(IllegalArgumentException.class, () -> new CompiledUriTemplate("http://api/{id"));
+    }
+}
@@ -0,0 +1,37 @@
+package fr.polytech.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class InstrumentedConnectionManagerTest {
+
+    /**
+     * Test that each lease records a sample in the lease timer of its target host.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testLeaseRecordsWaitTime() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HttpRoute route = new HttpRoute(new HttpHost("http", "company-api", 8080));
+
+        try (InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(meterRegistry)) {
+            for (int i = 0; i < 2; i++) {
+                ConnectionEndpoint endpoint = connectionManager.lease("exchange-" + i, route, Timeout.ofSeconds(1), null).get(Timeout.ofSeconds(1));
+                connectionManager.release(endpoint, null, TimeValue.ZERO_MILLISECONDS);
+            }
+        }
+
+        Timer timer = meterRegistry.get("httpcomponents.httpclient.pool.lease").tag("target.host", "company-api").timer();
+        assertEquals(2, timer.count());
+        assertEquals(1, meterRegistry.find("httpcomponents.httpclient.pool.lease").timers().size());
+    }
+}
@@ -0,0 +1,171 @@
+package fr.polytech.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwkConfigTest {
+
+    private final JwkConfig jwkConfig = new JwkConfig();
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final AtomicReference<JWKSet> servedKeys = new AtomicReference<>();
+
+    private HttpServer issuer;
+
+    private RSAKey currentKey;
+
+    private RSAKey nextKey;
+
+    /**
+     * Start a stand-in issuer serving its JWK set.
+     *
+     * @throws Exception If an error occurs
+     */
+    @BeforeEach
+    public void setUp() throws Exception {
+        currentKey = new RSAKeyGenerator(2048).keyID("current").generate();
+        nextKey = new RSAKeyGenerator(2048).keyID("next").generate();
+        servedKeys.set(new JWKSet(currentKey.toPublicJWK()));
+
+        issuer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        issuer.createContext("/jwks", exchange -> {
+            fetches.incrementAndGet();
+            byte[] body = servedKeys.get().toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        issuer.start();
+    }
+
+    /**
+     * Stop the stand-in issuer.
+     */
+    @AfterEach
+    public void tearDown() {
+        issuer.stop(0);
+    }
+
+    /**
+     * Test that the keys are preloaded, and that the tokens signed by a known key are verified without fetching the keys again.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testPreloadKeys() throws Exception {
+        JWKSource<SecurityContext> jwkSource = newJwkSource("http://localhost:" + issuer.getAddress().getPort() + "/jwks", Duration.ofSeconds(30));
+        JwtDecoder jwtDecoder = jwkConfig.jwtDecoder(jwkSource, "");
+
+        jwkConfig.jwkSetPreloader(jwkSource).run(null);
+        assertEquals(1, fetches.get());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("candidate", jwtDecoder.decode(sign(currentKey)).getSubject());
+        }
+        assertEquals(1, fetches.get());
+    }
+
+    /**
+     * Test that a token signed by a rotated key fetches the keys once, and that unknown keys do not fetch them more than the rate limit.
+     * The rate limit allows two fetches per interval.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testFetchKeysOnUnknownKeyId() throws Exception {
+        RSAKey unknownKey = new RSAKeyGenerator(2048).keyID("unknown").generate();
+        JWKSource<SecurityContext> jwkSource = newJwkSource("http://localhost:" + issuer.getAddress().getPort() + "/jwks", Duration.ofSeconds(1));
+        JwtDecoder jwtDecoder = jwkConfig.jwtDecoder(jwkSource, "");
+        jwkConfig.jwkSetPreloader(jwkSource).run(null);
+
+        // The issuer rotates its keys after the rate limit interval of the preload
+        servedKeys.set(new JWKSet(List.of(currentKey.toPublicJWK(), nextKey.toPublicJWK())));
+        Thread.sleep(1100);
+        assertEquals("candidate", jwtDecoder.decode(sign(nextKey)).getSubject());
+        assertEquals(2, fetches.get());
+
+        // Tokens signed by a key the issuer does not know
+        for (int i = 0; i < 5; i++) {
+            assertThrows(JwtException.class, () -> jwtDecoder.decode(sign(unknownKey)));
+        }
+        assertTrue(fetches.get() <= 3, "Fetched " + fetches.get() + " times");
+    }
+
+    /**
+     * Test that the keys can be read from a local file.
+     *
+     * @param directory Temporary directory
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testReadKeysFromFile(@TempDir Path directory) throws Exception {
+        Path jwks = directory.resolve("jwks.json");
+        Files.writeString(jwks, new JWKSet(currentKey.toPublicJWK()).toString());
+        JwtDecoder jwtDecoder = jwkConfig.jwtDecoder(newJwkSource(jwks.toUri().toString(), Duration.ofSeconds(30)), "");
+
+        assertEquals("candidate", jwtDecoder.decode(sign(currentKey)).getSubject());
+    }
+
+    /**
+     * Create the cached JWK source.
+     *
+     * @param jwkSetUri URI of the JWK set
+     * @param rateLimit Minimum time between two fetches
+     * @return JWKSource
+     * @throws Exception If an error occurs
+     */
+    private JWKSource<SecurityContext> newJwkSource(String jwkSetUri, Duration rateLimit) throws Exception {
+        return jwkConfig.jwkSource(jwkSetUri, Duration.ofMinutes(15), Duration.ofMinutes(1), Duration.ofSeconds(5), rateLimit,
+                Duration.ofSeconds(2), Duration.ofSeconds(2), new DefaultResourceLoader());
+    }
+
+    /**
+     * Sign an access token.
+     *
+     * @param key Signing key
+     * @return Serialized token
+     * @throws Exception If an error occurs
+     */
+    private static String sign(RSAKey key) throws Exception {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), new JWTClaimsSet.Builder()
+                .subject("candidate")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(60)))
+                .build());
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
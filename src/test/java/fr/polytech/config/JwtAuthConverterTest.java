@@ -0,0 +1,85 @@
+package fr.polytech.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtAuthConverterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final JwtAuthConverter converter = new JwtAuthConverter("preferred_username", "experience-api", 100, Duration.ofMinutes(5),
+            new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class));
+
+    /**
+     * Test that the authorities are read from the scopes and from the roles of the resource, with the principal name.
+     */
+    @Test
+    public void testConvert() {
+        AbstractAuthenticationToken authentication = converter.convert(newJwt(UUID.randomUUID().toString(), Instant.now().plusSeconds(60)));
+
+        assertEquals("candidate", authentication.getName());
+        assertEquals(Set.of("SCOPE_profile", "ROLE_admin"), authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Test that a token seen again reuses its authorities, and that the hits are published.
+     */
+    @Test
+    public void testReuseAuthoritiesOfSameToken() {
+        String id = UUID.randomUUID().toString();
+        AbstractAuthenticationToken first = converter.convert(newJwt(id, Instant.now().plusSeconds(60)));
+        AbstractAuthenticationToken second = converter.convert(newJwt(id, Instant.now().plusSeconds(60)));
+
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "jwt-authorities").tag("result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "jwt-authorities").tag("result", "miss").functionCounter().count());
+    }
+
+    /**
+     * Test that the authorities of an expired token are not reused.
+     */
+    @Test
+    public void testDoNotReuseExpiredToken() {
+        String id = UUID.randomUUID().toString();
+        AbstractAuthenticationToken first = converter.convert(newJwt(id, Instant.now().minusSeconds(1)));
+        AbstractAuthenticationToken second = converter.convert(newJwt(id, Instant.now().minusSeconds(1)));
+
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+        assertEquals(0, meterRegistry.get("cache.gets").tag("cache", "jwt-authorities").tag("result", "hit").functionCounter().count());
+        assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "jwt-authorities").tag("result", "miss").functionCounter().count());
+    }
+
+    /**
+     * Create a validated Jwt.
+     *
+     * @param id        Id of the token
+     * @param expiresAt Expiration time of the token
+     * @return Jwt
+     */
+    private static Jwt newJwt(String id, Instant expiresAt) {
+        return Jwt.withTokenValue("token-" + id)
+                .header("alg", "RS256")
+                .jti(id)
+                .issuedAt(expiresAt.minusSeconds(300))
+                .expiresAt(expiresAt)
+                .claim("preferred_username", "candidate")
+                .claim("scope", "profile")
+                .claim("resource_access", Map.of("experience-api", Map.of("roles", List.of("admin"))))
+                .build();
+    }
+}
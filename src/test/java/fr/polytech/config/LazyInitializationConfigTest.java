@@ -0,0 +1,25 @@
+package fr.polytech.config;
+
+import fr.polytech.service.ExperienceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.web.DefaultSecurityFilterChain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyInitializationConfigTest {
+
+    private final LazyInitializationExcludeFilter filter = LazyInitializationConfig.criticalBeansExcludeFilter();
+
+    /**
+     * Test that the beans needed by the first request are created at startup, and that the others are lazy.
+     */
+    @Test
+    public void testExcludeCriticalBeans() {
+        assertTrue(filter.isExcluded("securityFilterChain", new RootBeanDefinition(), DefaultSecurityFilterChain.class));
+        assertTrue(filter.isExcluded("jwtDecoder", new RootBeanDefinition(), NimbusJwtDecoder.class));
+        assertFalse(filter.isExcluded("experienceService", new RootBeanDefinition(), ExperienceService.class));
+    }
+}
@@ -0,0 +1,225 @@
+package fr.polytech.config;
+
+import fr.polytech.model.Experience;
+import fr.polytech.model.ExperienceBatchResultDTO;
+import fr.polytech.model.ExperienceDTO;
+import fr.polytech.repository.ExperienceRepository;
+import fr.polytech.service.CompanyService;
+import fr.polytech.service.ExperienceService;
+import fr.polytech.service.JobCategoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private ExperienceRepository experienceRepository;
+
+    @Autowired
+    private ExperienceService experienceService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private CompanyService companyService;
+
+    @MockBean
+    private JobCategoryService jobCategoryService;
+
+    private Statistics statistics;
+
+    /**
+     * Empty the database and the cache before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        experienceRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Test that an experience read several times is only read once from the database, and that the hits are published.
+     */
+    @Test
+    public void testReadExperienceFromCache() {
+        UUID id = experienceRepository.save(newExperience()).getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("jobTitle", experienceService.getExperienceById(id).getJobTitle());
+        }
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(9, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.EXPERIENCE_REGION).getHitCount());
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", SecondLevelCacheConfig.EXPERIENCE_REGION).tag("result", "hit").functionCounter().count() >= 9);
+    }
+
+    /**
+     * Test that an updated experience is read again from the database.
+     */
+    @Test
+    public void testInvalidateUpdatedExperience() {
+        Experience experience = experienceRepository.save(newExperience());
+        experienceService.getExperienceById(experience.getId());
+
+        ExperienceDTO update = newExperienceDTO(experience);
+        update.setJobTitle("updated");
+        experienceService.updateExperience(update);
+
+        assertEquals("updated", experienceService.getExperienceById(experience.getId()).getJobTitle());
+    }
+
+    /**
+     * Test that updating an experience read from the cache only costs its UPDATE statement, and keeps the other experiences cached.
+     */
+    @Test
+    public void testUpdateKeepsOtherExperiencesCached() {
+        Experience experience = experienceRepository.save(newExperience());
+        Experience other = experienceRepository.save(newExperience());
+        experienceService.getExperienceById(experience.getId());
+        experienceService.getExperienceById(other.getId());
+        statistics.clear();
+
+        ExperienceDTO update = newExperienceDTO(experience);
+        update.setJobTitle("updated");
+        experienceService.updateExperience(update);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        experienceService.getExperienceById(other.getId());
+        assertEquals("updated", experienceService.getExperienceById(experience.getId()).getJobTitle());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Test that an update with the stored version succeeds when the cached experience is outdated.
+     */
+    @Test
+    public void testUpdateOutdatedCachedExperience() {
+        Experience experience = experienceRepository.save(newExperience());
+        experienceService.getExperienceById(experience.getId());
+        // Write the experience behind the cache, as another replica would before its invalidation arrives
+        jdbcTemplate.update("UPDATE experience SET job_title = 'other', version = version + 1 WHERE id = ?", experience.getId());
+
+        ExperienceDTO update = newExperienceDTO(experience);
+        update.setJobTitle("updated");
+        update.setVersion(experience.getVersion() + 1);
+        Experience updated = experienceService.updateExperience(update);
+
+        assertEquals(experience.getVersion() + 2, updated.getVersion());
+        assertEquals("updated", experienceService.getExperienceById(experience.getId()).getJobTitle());
+    }
+
+    /**
+     * Test that a batch update compares the version with the stored experience, not with an outdated cached one.
+     */
+    @Test
+    public void testUpdateExperiencesWithOutdatedCachedExperience() {
+        Experience experience = experienceRepository.save(newExperience());
+        experienceService.getExperienceById(experience.getId());
+        jdbcTemplate.update("UPDATE experience SET job_title = 'other', version = version + 1 WHERE id = ?", experience.getId());
+
+        ExperienceDTO update = newExperienceDTO(experience);
+        update.setJobTitle("updated");
+        update.setVersion(experience.getVersion() + 1);
+        List<ExperienceBatchResultDTO> results = experienceService.updateExperiences(List.of(update));
+
+        assertEquals(HttpStatus.OK.value(), results.get(0).getStatus());
+        assertEquals(experience.getVersion() + 2, results.get(0).getExperience().getVersion());
+    }
+
+    /**
+     * Test that a deleted experience is not read from the cache.
+     */
+    @Test
+    public void testInvalidateDeletedExperience() {
+        Experience experience = experienceRepository.save(newExperience());
+        experienceService.getExperienceById(experience.getId());
+
+        experienceService.deleteExperience(experience.getId());
+
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> experienceService.getExperienceById(experience.getId()));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    /**
+     * Test that the experiences of a company are read once from the database, until an experience of the company is created.
+     */
+    @Test
+    public void testCacheExperiencesOfCompany() {
+        Experience experience = experienceRepository.save(newExperience());
+        statistics.clear();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, experienceService.getExperiencesByCompanyId(experience.getCompanyId(), null, null).size());
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(9, statistics.getQueryRegionStatistics(SecondLevelCacheConfig.EXPERIENCE_QUERY_REGION).getHitCount());
+
+        Experience other = newExperience();
+        other.setCompanyId(experience.getCompanyId());
+        experienceRepository.save(other);
+
+        assertEquals(2, experienceService.getExperiencesByCompanyId(experience.getCompanyId(), null, null).size());
+    }
+
+    /**
+     * Create a valid experience.
+     *
+     * @return Experience
+     */
+    private Experience newExperience() {
+        Experience experience = new Experience();
+        experience.setJobTitle("jobTitle");
+        experience.setCompanyId(UUID.randomUUID());
+        experience.setJobCategoryId(UUID.randomUUID());
+        experience.setStartDate(LocalDate.EPOCH);
+        experience.setEndDate(LocalDate.now());
+        return experience;
+    }
+
+    /**
+     * Create the DTO of an experience.
+     *
+     * @param experience Experience
+     * @return ExperienceDTO
+     */
+    private ExperienceDTO newExperienceDTO(Experience experience) {
+        ExperienceDTO dto = new ExperienceDTO();
+        dto.setId(experience.getId());
+        dto.setJobTitle(experience.getJobTitle());
+        dto.setCompanyId(experience.getCompanyId());
+        dto.setJobCategoryId(experience.getJobCategoryId());
+        dto.setStartDate(experience.getStartDate());
+        dto.setEndDate(experience.getEndDate());
+        return dto;
+    }
+}
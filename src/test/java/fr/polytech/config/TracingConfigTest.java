@@ -0,0 +1,186 @@
+package fr.polytech.config;
+
+import com.sun.net.httpserver.HttpServer;
+import fr.polytech.service.ApiService;
+import fr.polytech.service.DownstreamCallService;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+@ActiveProfiles("test")
+@Import(TracingConfigTest.InMemoryExporterConfig.class)
+public class TracingConfigTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private static final AtomicReference<String> receivedTraceparent = new AtomicReference<>();
+
+    private static final HttpServer downstream = startDownstream();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    private DownstreamCallService downstreamCallService;
+
+    @Autowired
+    private ApiService apiService;
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+
+        @Bean
+        public InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    /**
+     * Register the stand-in downstream API in the simple discovery client used by the load balancer.
+     *
+     * @param registry Registry of the properties
+     */
+    @DynamicPropertySource
+    static void downstreamProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.traced-api[0].uri", () -> "http://localhost:" + downstream.getAddress().getPort());
+    }
+
+    /**
+     * Stop the stand-in downstream API.
+     */
+    @AfterAll
+    static void stopDownstream() {
+        downstream.stop(0);
+    }
+
+    /**
+     * Forget the spans of the previous tests.
+     */
+    @BeforeEach
+    public void setUp() {
+        spanExporter.reset();
+        receivedTraceparent.set(null);
+    }
+
+    /**
+     * Test that an incoming W3C traceparent is continued by the server span and by the repository span.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testIncomingTraceparentIsContinued() throws Exception {
+        mockMvc.perform(get("/api/v1/experience/" + UUID.randomUUID())
+                .header("traceparent", "00-" + TRACE_ID + "-00f067aa0ba902b7-01"));
+
+        List<SpanData> spans = finishedSpans();
+        assertTrue(spans.stream().anyMatch(span -> span.getKind() == SpanKind.SERVER && span.getTraceId().equals(TRACE_ID)), "Spans: " + spans);
+        assertTrue(spans.stream().anyMatch(span -> span.getName().equals("ExperienceRepository.findById") && span.getTraceId().equals(TRACE_ID)), "Spans: " + spans);
+    }
+
+    /**
+     * Test that the downstream calls run with the trace of the caller and send it in the traceparent header.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testDownstreamCallPropagatesTraceparent() throws Exception {
+        Observation parent = Observation.start("test", observationRegistry);
+        String traceId;
+        try (Observation.Scope ignored = parent.openScope()) {
+            traceId = tracer.currentSpan().context().traceId();
+            String response = downstreamCallService.submit(() -> apiService.makeApiCall("traced", "http://traced-api/1", HttpMethod.GET, String.class, "Bearer token"))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("{}", response);
+        } finally {
+            parent.stop();
+        }
+
+        assertNotNull(receivedTraceparent.get());
+        assertTrue(receivedTraceparent.get().contains(traceId), "traceparent: " + receivedTraceparent.get());
+        List<SpanData> spans = finishedSpans();
+        assertTrue(spans.stream().anyMatch(span -> span.getKind() == SpanKind.CLIENT && span.getTraceId().equals(traceId)), "Spans: " + spans);
+    }
+
+    /**
+     * Wait for the batch span processor to export the finished spans.
+     *
+     * @return Exported spans
+     */
+    private List<SpanData> finishedSpans() {
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        return spanExporter.getFinishedSpanItems();
+    }
+
+    /**
+     * Start a downstream API recording the traceparent header it receives.
+     *
+     * @return Started server
+     */
+    private static HttpServer startDownstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                receivedTraceparent.set(exchange.getRequestHeaders().getFirst("traceparent"));
+                byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
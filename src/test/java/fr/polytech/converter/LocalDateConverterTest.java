@@ -0,0 +1,42 @@
+package fr.polytech.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalDateConverterTest {
+
+    private final LocalDateConverter converter = new LocalDateConverter();
+
+    /**
+     * Test that a date is read back unchanged.
+     */
+    @Test
+    public void testRoundTrip() {
+        LocalDate date = LocalDate.of(2023, 6, 1);
+        assertEquals(date, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(date)));
+    }
+
+    /**
+     * Test that a value written in the former TIMESTAMP column is read as its day.
+     */
+    @Test
+    public void testReadTimestamp() {
+        Timestamp timestamp = Timestamp.valueOf(LocalDateTime.of(2023, 6, 1, 14, 30));
+        assertEquals(LocalDate.of(2023, 6, 1), converter.convertToEntityAttribute(new Date(timestamp.getTime())));
+    }
+
+    /**
+     * Test that null dates are kept null.
+     */
+    @Test
+    public void testNull() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,50 @@
+package fr.polytech.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeOrderedUuidGeneratorTest {
+
+    /**
+     * Test that the generated ids have the version and variant of a UUIDv7.
+     */
+    @Test
+    public void testVersionAndVariant() {
+        UUID id = TimeOrderedUuidGenerator.next();
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    /**
+     * Test that the generated ids embed the current time.
+     */
+    @Test
+    public void testTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = TimeOrderedUuidGenerator.next();
+        long after = System.currentTimeMillis();
+
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after + 1);
+    }
+
+    /**
+     * Test that the generated ids are strictly increasing, in the unsigned byte order used by the database.
+     */
+    @Test
+    public void testIdsAreIncreasing() {
+        UUID previous = TimeOrderedUuidGenerator.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = TimeOrderedUuidGenerator.next();
+            int comparison = Long.compareUnsigned(previous.getMostSignificantBits(), next.getMostSignificantBits());
+            if (comparison == 0) {
+                comparison = Long.compareUnsigned(previous.getLeastSignificantBits(), next.getLeastSignificantBits());
+            }
+            assertTrue(comparison < 0, previous + " should be before " + next);
+            previous = next;
+        }
+    }
+}
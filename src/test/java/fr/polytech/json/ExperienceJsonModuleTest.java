@@ -0,0 +1,107 @@
+package fr.polytech.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import fr.polytech.model.CompanyDTO;
+import fr.polytech.model.DetailedExperienceDTO;
+import fr.polytech.model.Experience;
+import fr.polytech.model.JobCategoryDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExperienceJsonModuleTest {
+
+    private final ObjectMapper defaultMapper = newMapper(false, true);
+
+    private final ObjectMapper tunedMapper = newMapper(true, true);
+
+    /**
+     * Test that an experience is written as the default serializer does.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testSerializeExperience() throws Exception {
+        Experience experience = new Experience();
+        experience.setId(UUID.randomUUID());
+        experience.setJobTitle("Waiter \"head\"");
+        experience.setJobCategoryId(UUID.randomUUID());
+        experience.setStartDate(LocalDate.of(2023, 6, 1));
+        experience.setEndDate(LocalDate.of(2023, 8, 31));
+        experience.setCompanyId(UUID.randomUUID());
+        experience.setVersion(3L);
+
+        assertEquals(defaultMapper.writeValueAsString(experience), tunedMapper.writeValueAsString(experience));
+        assertEquals(defaultMapper.writeValueAsString(new Experience()), tunedMapper.writeValueAsString(new Experience()));
+    }
+
+    /**
+     * Test that a detailed experience, its company and its job category are written as the default serializers do.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testSerializeDetailedExperience() throws Exception {
+        CompanyDTO company = new CompanyDTO();
+        company.setId(UUID.randomUUID());
+        company.setName("Company");
+        company.setLogoUrl("https://example.com/logo.png");
+        company.setDescription("Seasonal restaurant");
+        company.setEmployeesNumberRange("10-49");
+        company.setAddressId(Arrays.asList(UUID.randomUUID(), null));
+        company.setSiretNumber("12345678900010");
+        company.setDocumentsUrl(List.of("https://example.com/document.pdf"));
+        JobCategoryDTO jobCategory = new JobCategoryDTO();
+        jobCategory.setId(UUID.randomUUID());
+        jobCategory.setName("Catering");
+        DetailedExperienceDTO detailedExperience = new DetailedExperienceDTO();
+        detailedExperience.setId(UUID.randomUUID());
+        detailedExperience.setJobTitle("Waiter");
+        detailedExperience.setStartDate(LocalDate.of(2023, 6, 1));
+        detailedExperience.setEndDate(LocalDate.of(2023, 8, 31));
+        detailedExperience.setCompany(company);
+        detailedExperience.setJobCategory(jobCategory);
+        detailedExperience.setVersion(3L);
+
+        String json = tunedMapper.writeValueAsString(List.of(detailedExperience, new DetailedExperienceDTO()));
+        assertEquals(defaultMapper.writeValueAsString(List.of(detailedExperience, new DetailedExperienceDTO())), json);
+        assertFalse(json.contains("version"));
+        assertEquals(defaultMapper.writeValueAsString(new CompanyDTO()), tunedMapper.writeValueAsString(new CompanyDTO()));
+    }
+
+    /**
+     * Test that the dates follow the mapper when it writes them as timestamps.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testSerializeDatesAsTimestamps() throws Exception {
+        Experience experience = new Experience();
+        experience.setStartDate(LocalDate.of(2023, 6, 1));
+
+        assertEquals(newMapper(false, false).writeValueAsString(experience), newMapper(true, false).writeValueAsString(experience));
+    }
+
+    /**
+     * Create a mapper writing the dates like Spring Boot.
+     *
+     * @param tuned      Whether the hand-written serializers are registered
+     * @param isoDates   Whether the dates are written as ISO strings rather than timestamps
+     * @return ObjectMapper
+     */
+    private static ObjectMapper newMapper(boolean tuned, boolean isoDates) {
+        JsonMapper.Builder builder = JsonMapper.builder().addModule(new JavaTimeModule()).configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, !isoDates);
+        if (tuned) {
+            builder.addModule(new ExperienceJsonModule());
+        }
+        return builder.build();
+    }
+}
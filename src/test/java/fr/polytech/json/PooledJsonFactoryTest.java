@@ -0,0 +1,81 @@
+package fr.polytech.json;
+
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PooledJsonFactoryTest {
+
+    /**
+     * Test that the threads share the recyclers of the pool.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testThreadsShareRecyclers() throws Exception {
+        PooledJsonFactory factory = new PooledJsonFactory(1);
+        AtomicReference<Object> otherThreadRecycler = new AtomicReference<>();
+        Thread thread = new Thread(() -> otherThreadRecycler.set(factory._getBufferRecycler()));
+        thread.start();
+        thread.join();
+
+        assertSame(factory._getBufferRecycler(), otherThreadRecycler.get());
+    }
+
+    /**
+     * Test that a copied mapper keeps the pool and still writes JSON.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testCopy() throws Exception {
+        PooledJsonFactory factory = new PooledJsonFactory(4);
+        ObjectMapper copy = JsonMapper.builder(factory).build().copy();
+
+        assertInstanceOf(PooledJsonFactory.class, copy.getFactory());
+        assertSame(factory._getBufferRecycler(), copy.getFactory()._getBufferRecycler());
+        assertEquals("[\"a\",1]", copy.writeValueAsString(List.of("a", 1)));
+    }
+
+    /**
+     * Test that the generators and parsers still take their buffers from the overridden _getBufferRecycler.
+     * The pool relies on this Jackson 2.15 internal: this test fails if a Jackson upgrade stops calling it.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testBuffersTakenFromPool() throws Exception {
+        AtomicInteger recyclerCalls = new AtomicInteger();
+        PooledJsonFactory factory = new PooledJsonFactory(1) {
+            @Override
+            @SuppressWarnings("deprecation")
+            public BufferRecycler _getBufferRecycler() {
+                recyclerCalls.incrementAndGet();
+                return super._getBufferRecycler();
+            }
+        };
+        ObjectMapper objectMapper = JsonMapper.builder(factory).build();
+
+        byte[] json = objectMapper.writeValueAsBytes(List.of("a", 1));
+        assertTrue(recyclerCalls.get() > 0);
+
+        recyclerCalls.set(0);
+        assertEquals(List.of("a", 1), objectMapper.readValue(json, List.class));
+        assertTrue(recyclerCalls.get() > 0);
+    }
+
+    /**
+     * Test that the pool size is checked.
+     */
+    @Test
+    public void testInvalidPoolSize() {
+        assertThrows(IllegalArgumentException.class, () -> new PooledJsonFactory(0));
+    }
+}
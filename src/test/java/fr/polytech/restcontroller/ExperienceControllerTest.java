@@ -1,37 +1,61 @@
 package fr.polytech.restcontroller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.polytech.model.CompanyDTO;
+import fr.polytech.model.DetailedExperienceDTO;
 import fr.polytech.model.Experience;
+import fr.polytech.model.ExperienceBatchResultDTO;
 import fr.polytech.model.ExperienceDTO;
+import fr.polytech.model.ExperienceField;
 import fr.polytech.service.ExperienceService;
+import fr.polytech.service.HttpCacheService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
 import java.util.Arrays;
-import java.util.Date;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(value = ExperienceController.class)
 @TestPropertySource(locations = "classpath:application-test.properties")
 @ActiveProfiles("test")
+@Import(HttpCacheService.class)
 public class ExperienceControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockBean
     private ExperienceService experienceService;
 
@@ -43,9 +67,80 @@ public class ExperienceControllerTest {
     @Test
     @WithMockUser
     public void testGetAllExperiences() throws Exception {
-        given(experienceService.getAllExperiences()).willReturn(Arrays.asList(new Experience(), new Experience()));
+        Experience last = new Experience();
+        last.setId(UUID.randomUUID());
+        given(experienceService.getExperiencesPage(null, null)).willReturn(Arrays.asList(new Experience(), last));
         mockMvc.perform(get("/api/v1/experience/"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string(ExperienceController.NEXT_CURSOR_HEADER, last.getId().toString()));
+    }
+
+    /**
+     * Test that the endpoint only returns the selected fields, with the cursor of the next page.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testGetAllExperiencesFields() throws Exception {
+        UUID id = UUID.randomUUID();
+        Map<String, Object> experience = new LinkedHashMap<>();
+        experience.put("id", id);
+        experience.put("jobTitle", "jobTitle");
+        given(experienceService.getExperienceFieldsPage(null, null, EnumSet.of(ExperienceField.ID, ExperienceField.JOB_TITLE))).willReturn(List.of(experience));
+        mockMvc.perform(get("/api/v1/experience/").param("fields", "jobTitle"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ExperienceController.NEXT_CURSOR_HEADER, id.toString()))
+                .andExpect(jsonPath("$[0].jobTitle").value("jobTitle"))
+                .andExpect(jsonPath("$[0].startDate").doesNotExist());
+    }
+
+    /**
+     * Test that the endpoint returns a 400 status code when a selected field is unknown.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testGetExperiencesByCompanyIdWithUnknownField() throws Exception {
+        mockMvc.perform(get("/api/v1/experience/company/" + UUID.randomUUID()).param("fields", "jobTitle,password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test that the endpoint returns a 400 status code when the page size is not valid.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testGetAllExperiencesWithInvalidSize() throws Exception {
+        given(experienceService.getExperiencesPage(null, 0)).willThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+        mockMvc.perform(get("/api/v1/experience/").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test that the endpoint streams all experiences as a JSON array.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testStreamAllExperiences() throws Exception {
+        willAnswer(invocation -> {
+            Consumer<Experience> consumer = invocation.getArgument(0);
+            consumer.accept(new Experience());
+            consumer.accept(new Experience());
+            return null;
+        }).given(experienceService).streamAllExperiences(any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/experience/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
     }
 
     /**
@@ -62,6 +157,205 @@ public class ExperienceControllerTest {
                 .andExpect(status().isOk());
     }
 
+    /**
+     * Test that the dates are written as ISO dates, and read back from them.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testExperienceDatesWireFormat() throws Exception {
+        UUID id = UUID.randomUUID();
+        Experience experience = new Experience();
+        experience.setId(id);
+        experience.setStartDate(LocalDate.of(2023, 6, 1));
+        experience.setEndDate(LocalDate.of(2023, 8, 31));
+        given(experienceService.getExperienceById(id)).willReturn(experience);
+
+        mockMvc.perform(get("/api/v1/experience/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.startDate").value("2023-06-01"))
+                .andExpect(jsonPath("$.endDate").value("2023-08-31"));
+        assertEquals(LocalDate.of(2023, 6, 1), objectMapper.readValue("{\"startDate\":\"2023-06-01\"}", ExperienceDTO.class).getStartDate());
+    }
+
+    /**
+     * Test that the endpoint returns an ETag derived from the version, and a 304 without body when the client holds the same version.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testGetExperienceByIdNotModified() throws Exception {
+        UUID id = UUID.randomUUID();
+        Experience experience = new Experience();
+        experience.setId(id);
+        experience.setVersion(3L);
+        given(experienceService.getExperienceById(id)).willReturn(experience);
+
+        String eTag = "\"" + id + "-3\"";
+        mockMvc.perform(get("/api/v1/experience/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+        mockMvc.perform(get("/api/v1/experience/" + id).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/v1/experience/" + id).header("If-None-Match", "\"" + id + "-2\""))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Test that the ETag of a detailed experience changes with its company, and that a matching one gets a 304.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testGetDetailedExperienceByIdNotModified() throws Exception {
+        UUID id = UUID.randomUUID();
+        CompanyDTO company = new CompanyDTO();
+        company.setId(UUID.randomUUID());
+        company.setName("Before");
+        DetailedExperienceDTO experience = new DetailedExperienceDTO();
+        experience.setId(id);
+        experience.setVersion(1L);
+        experience.setCompany(company);
+        given(experienceService.getDetailedExperienceById(id, "token")).willReturn(experience);
+
+        String eTag = mockMvc.perform(get("/api/v1/experience/detailed/" + id).header("Authorization", "token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/experience/detailed/" + id).header("Authorization", "token").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        // The company cache got a new version of the company
+        CompanyDTO renamedCompany = new CompanyDTO();
+        renamedCompany.setId(company.getId());
+        renamedCompany.setName("After");
+        experience.setCompany(renamedCompany);
+        String newETag = mockMvc.perform(get("/api/v1/experience/detailed/" + id).header("Authorization", "token").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(eTag, newETag);
+    }
+
+    /**
+     * Test that the endpoint returns the experiences of a company.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testGetExperiencesByCompanyId() throws Exception {
+        UUID companyId = UUID.randomUUID();
+        given(experienceService.getExperiencesByCompanyId(companyId, 1, 20)).willReturn(List.of(new Experience()));
+        mockMvc.perform(get("/api/v1/experience/company/" + companyId).param("page", "1").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    /**
+     * Test that the endpoint returns the experiences of a job category.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testGetExperiencesByJobCategoryId() throws Exception {
+        UUID jobCategoryId = UUID.randomUUID();
+        given(experienceService.getExperiencesByJobCategoryId(jobCategoryId, null, null)).willReturn(List.of(new Experience()));
+        mockMvc.perform(get("/api/v1/experience/job-category/" + jobCategoryId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    /**
+     * Test that the reactive endpoint completes asynchronously with the detailed experience.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testGetDetailedExperienceByIdReactive() throws Exception {
+        UUID id = UUID.randomUUID();
+        DetailedExperienceDTO experience = new DetailedExperienceDTO();
+        experience.setId(id);
+        given(experienceService.getDetailedExperienceByIdReactive(id, "token")).willReturn(Mono.just(experience));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/experience/detailed/" + id + "/reactive").header("Authorization", "token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(header().doesNotExist(ExperienceController.DEGRADED_HEADER));
+    }
+
+    /**
+     * Test that the reactive endpoint flags a detailed experience built from a fallback, and that it cannot be cached.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testGetDegradedDetailedExperienceByIdReactive() throws Exception {
+        UUID id = UUID.randomUUID();
+        DetailedExperienceDTO experience = new DetailedExperienceDTO();
+        experience.setId(id);
+        experience.setDegraded(true);
+        given(experienceService.getDetailedExperienceByIdReactive(id, "token")).willReturn(Mono.just(experience));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/experience/detailed/" + id + "/reactive").header("Authorization", "token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ExperienceController.DEGRADED_HEADER, "true"))
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().string("Cache-Control", containsString("no-store")))
+                .andExpect(jsonPath("$.degraded").doesNotExist());
+    }
+
+    /**
+     * Test that the reactive endpoint returns the status code of the error.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testGetDetailedExperienceByIdReactiveWithTimeout() throws Exception {
+        UUID id = UUID.randomUUID();
+        given(experienceService.getDetailedExperienceByIdReactive(id, "token")).willReturn(Mono.error(new HttpClientErrorException(HttpStatus.GATEWAY_TIMEOUT)));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/experience/detailed/" + id + "/reactive").header("Authorization", "token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isGatewayTimeout());
+    }
+
+    /**
+     * Test that the endpoint returns the detailed experiences.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testGetDetailedExperiencesByIds() throws Exception {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        given(experienceService.getDetailedExperiencesByIds(ids, "token")).willReturn(List.of(new DetailedExperienceDTO(), new DetailedExperienceDTO()));
+
+        mockMvc.perform(post("/api/v1/experience/detailed/batch")
+                        .header("Authorization", "token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
     /**
      * Test that the endpoint returns a 200 status code.
      *
@@ -72,8 +366,8 @@ public class ExperienceControllerTest {
     public void testCreateExperience() throws Exception {
         ExperienceDTO experienceDTO = new ExperienceDTO();
         experienceDTO.setCompanyId(UUID.randomUUID());
-        experienceDTO.setStartDate(new Date());
-        experienceDTO.setEndDate(new Date());
+        experienceDTO.setStartDate(LocalDate.now());
+        experienceDTO.setEndDate(LocalDate.now());
         experienceDTO.setJobTitle("jobTitle");
         experienceDTO.setJobCategoryId(UUID.randomUUID());
 
@@ -87,7 +381,7 @@ public class ExperienceControllerTest {
 
         mockMvc.perform(post("/api/v1/experience/")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(new ObjectMapper().writeValueAsString(experienceDTO))
+                        .content(objectMapper.writeValueAsString(experienceDTO))
                         .with(csrf()))
                 .andExpect(status().isOk());
     }
@@ -106,11 +400,47 @@ public class ExperienceControllerTest {
 
         mockMvc.perform(put("/api/v1/experience/")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(new ObjectMapper().writeValueAsString(experienceDTO))
+                        .content(objectMapper.writeValueAsString(experienceDTO))
                         .with(csrf()))
                 .andExpect(status().isOk());
     }
 
+    /**
+     * Test that the endpoint returns the result of each experience.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testCreateExperiences() throws Exception {
+        given(experienceService.createExperiences(any())).willReturn(List.of(new ExperienceBatchResultDTO(0, 200, null, new Experience()), new ExperienceBatchResultDTO(1, 400, "Missing attributes", null)));
+
+        mockMvc.perform(post("/api/v1/experience/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new ExperienceDTO(), new ExperienceDTO())))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].status").value(400));
+    }
+
+    /**
+     * Test that the endpoint returns the result of each experience.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testUpdateExperiences() throws Exception {
+        given(experienceService.updateExperiences(any())).willReturn(List.of(new ExperienceBatchResultDTO(0, 404, "Experience not found", null)));
+
+        mockMvc.perform(put("/api/v1/experience/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new ExperienceDTO())))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(404));
+    }
+
     /**
      * Test that the endpoint returns a 200 status code.
      *
@@ -123,4 +453,20 @@ public class ExperienceControllerTest {
         mockMvc.perform(delete("/api/v1/experience/" + id).with(csrf()))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test that a delete conflicting with a concurrent modification answers 409, not 404.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    @WithMockUser
+    public void testDeleteConcurrentlyModifiedExperience() throws Exception {
+        UUID id = UUID.randomUUID();
+        willThrow(new HttpClientErrorException(HttpStatus.CONFLICT)).given(experienceService).deleteExperience(id);
+
+        mockMvc.perform(delete("/api/v1/experience/" + id).with(csrf()))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("false"));
+    }
+}
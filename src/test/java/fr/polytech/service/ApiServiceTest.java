@@ -0,0 +1,120 @@
+package fr.polytech.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {
+        "resilience4j.circuitbreaker.configs.default.sliding-window-size=4",
+        "resilience4j.circuitbreaker.configs.default.minimum-number-of-calls=4",
+        "experience.hedging.enabled=true",
+        "experience.hedging.delay=100ms",
+        "experience.downstream.endpoints.flaky.retries=1"
+})
+@ActiveProfiles("test")
+public class ApiServiceTest {
+
+    @Autowired
+    private ApiService apiService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    /**
+     * Test that the circuit breaker opens after repeated server errors and then fails fast without calling the API.
+     */
+    @Test
+    public void testCircuitBreakerFailsFast() {
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .willThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class, () -> apiService.makeApiCall("failing", "http://failing/1", HttpMethod.GET, String.class, "Bearer token"));
+        }
+
+        // Check that an exception is thrown with status code 503
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> apiService.makeApiCall("failing", "http://failing/1", HttpMethod.GET, String.class, "Bearer token"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        verify(restTemplate, times(4)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+        assertEquals(4, meterRegistry.get("experience.downstream.requests").tag("downstream", "failing").tag("status", "500").timer().count());
+        assertEquals(4, meterRegistry.get("experience.downstream.errors").tag("downstream", "failing").tag("status", "500").counter().count());
+        assertEquals(1, meterRegistry.get("experience.downstream.errors").tag("downstream", "failing").tag("status", "CIRCUIT_OPEN").counter().count());
+    }
+
+    /**
+     * Test that client errors do not open the circuit breaker.
+     */
+    @Test
+    public void testCircuitBreakerIgnoresClientErrors() {
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .willThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+        for (int i = 0; i < 6; i++) {
+            HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> apiService.makeApiCall("missing", "http://missing/1", HttpMethod.GET, String.class, "Bearer token"));
+            assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        }
+    }
+
+    /**
+     * Test that a read failing on the server side is sent again when the downstream API allows retries.
+     */
+    @Test
+    public void testRetryServerError() {
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .willThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY))
+                .willReturn(ResponseEntity.ok("retried"));
+
+        assertEquals("retried", apiService.makeApiCall("flaky", "http://flaky/1", HttpMethod.GET, String.class, "Bearer token"));
+        verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+        // Each attempt is timed once, by the requests timer of its status
+        assertEquals(1, meterRegistry.get("experience.downstream.requests").tag("downstream", "flaky").tag("status", "502").timer().count());
+        assertEquals(1, meterRegistry.get("experience.downstream.requests").tag("downstream", "flaky").tag("status", "200").timer().count());
+        assertNull(meterRegistry.find("experience.downstream.latency").timer());
+    }
+
+    /**
+     * Test that a second request is sent when the first one is slow, and that the first answer wins.
+     */
+    @Test
+    public void testHedgedRequest() {
+        AtomicInteger calls = new AtomicInteger();
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class))).willAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                Thread.sleep(2000);
+                return ResponseEntity.ok("slow");
+            }
+            return ResponseEntity.ok("fast");
+        });
+
+        long start = System.nanoTime();
+        String result = apiService.makeApiCall("slow", "http://slow/1", HttpMethod.GET, String.class, "Bearer token");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("fast", result);
+        assertTrue(elapsedMillis < 1000, "Call took " + elapsedMillis + " ms");
+        assertEquals(1, meterRegistry.get("experience.downstream.hedges").tag("downstream", "slow").counter().count());
+    }
+}
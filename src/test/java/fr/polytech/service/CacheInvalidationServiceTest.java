@@ -0,0 +1,160 @@
+package fr.polytech.service;
+
+import fr.polytech.cache.CacheInvalidation;
+import fr.polytech.cache.InMemoryInvalidationBus;
+import fr.polytech.cache.LookupCache;
+import fr.polytech.model.CompanyDTO;
+import fr.polytech.model.Experience;
+import fr.polytech.model.ExperienceDTO;
+import fr.polytech.repository.ExperienceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CacheInvalidationServiceTest {
+
+    @Autowired
+    private ExperienceRepository experienceRepository;
+
+    @Autowired
+    private ExperienceService experienceService;
+
+    @Autowired
+    private InMemoryInvalidationBus invalidationBus;
+
+    @Autowired
+    private LookupCache<CompanyDTO> companyCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private CompanyService companyService;
+
+    @MockBean
+    private JobCategoryService jobCategoryService;
+
+    private final List<CacheInvalidation> published = new CopyOnWriteArrayList<>();
+
+    private InMemoryInvalidationBus replica;
+
+    /**
+     * Empty the database, and connect another replica recording the published invalidations.
+     */
+    @BeforeEach
+    public void setUp() {
+        experienceRepository.deleteAll();
+        replica = invalidationBus.replica();
+        replica.subscribe(published::add);
+    }
+
+    /**
+     * Test that an experience written by another replica is evicted from the local cache once invalidated.
+     */
+    @Test
+    public void testEvictExperienceWrittenByReplica() {
+        Experience experience = experienceRepository.save(newExperience());
+        experienceService.getExperienceById(experience.getId());
+
+        // Another replica updates the experience
+        jdbcTemplate.update("UPDATE experience SET job_title = ? WHERE id = ?", "updated", experience.getId());
+        assertEquals("jobTitle", experienceService.getExperienceById(experience.getId()).getJobTitle());
+
+        replica.publish(new CacheInvalidation(CacheInvalidation.EXPERIENCE, List.of(experience.getId())));
+        assertEquals("updated", experienceService.getExperienceById(experience.getId()).getJobTitle());
+    }
+
+    /**
+     * Test that the written experiences are broadcast once their transaction commits, and not when it rolls back.
+     */
+    @Test
+    public void testPublishWrittenExperiences() {
+        Experience experience = experienceRepository.save(newExperience());
+
+        ExperienceDTO update = newExperienceDTO(experience);
+        update.setJobTitle("updated");
+        experienceService.updateExperience(update);
+        assertEquals(List.of(new CacheInvalidation(CacheInvalidation.EXPERIENCE, List.of(experience.getId()))), published);
+
+        update.setVersion(experience.getVersion());
+        assertThrows(HttpClientErrorException.class, () -> experienceService.updateExperience(update));
+        assertEquals(1, published.size());
+
+        experienceService.deleteExperience(experience.getId());
+        assertEquals(2, published.size());
+    }
+
+    /**
+     * Test that a company invalidated by another replica is fetched again.
+     */
+    @Test
+    public void testEvictCompanyInvalidatedByReplica() {
+        UUID id = UUID.randomUUID();
+        AtomicInteger fetches = new AtomicInteger();
+        companyCache.get(id, () -> fetchCompany(fetches));
+        companyCache.get(id, () -> fetchCompany(fetches));
+        assertEquals(1, fetches.get());
+
+        replica.publish(new CacheInvalidation(CacheInvalidation.COMPANY, List.of(id)));
+        companyCache.get(id, () -> fetchCompany(fetches));
+        assertEquals(2, fetches.get());
+    }
+
+    /**
+     * Fetch a company, counting the fetches.
+     *
+     * @param fetches Number of fetches
+     * @return CompanyDTO
+     */
+    private static CompanyDTO fetchCompany(AtomicInteger fetches) {
+        fetches.incrementAndGet();
+        return new CompanyDTO();
+    }
+
+    /**
+     * Create a valid experience.
+     *
+     * @return Experience
+     */
+    private Experience newExperience() {
+        Experience experience = new Experience();
+        experience.setJobTitle("jobTitle");
+        experience.setCompanyId(UUID.randomUUID());
+        experience.setJobCategoryId(UUID.randomUUID());
+        experience.setStartDate(LocalDate.EPOCH);
+        experience.setEndDate(LocalDate.now());
+        return experience;
+    }
+
+    /**
+     * Create the DTO of an experience.
+     *
+     * @param experience Experience
+     * @return ExperienceDTO
+     */
+    private ExperienceDTO newExperienceDTO(Experience experience) {
+        ExperienceDTO dto = new ExperienceDTO();
+        dto.setId(experience.getId());
+        dto.setJobTitle(experience.getJobTitle());
+        dto.setCompanyId(experience.getCompanyId());
+        dto.setJobCategoryId(experience.getJobCategoryId());
+        dto.setStartDate(experience.getStartDate());
+        dto.setEndDate(experience.getEndDate());
+        return dto;
+    }
+}
@@ -0,0 +1,119 @@
+package fr.polytech.service;
+
+import fr.polytech.config.VirtualThreads;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DownstreamCallServiceTest {
+
+    /**
+     * Test that the calls run on platform threads by default.
+     */
+    @Test
+    public void testPlatformThreads() {
+        DownstreamCallService downstreamCallService = new DownstreamCallService(4, 16, 1000, false);
+
+        Future<Boolean> future = downstreamCallService.submit(() -> Thread.currentThread().getName().startsWith("downstream-"));
+        assertTrue(downstreamCallService.await(future, downstreamCallService.deadline(), "test"));
+        downstreamCallService.shutdown();
+    }
+
+    /**
+     * Test that the calls run on virtual threads, at most pool-size at a time.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        DownstreamCallService downstreamCallService = new DownstreamCallService(2, 0, 5000, true);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(downstreamCallService.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return Thread.currentThread().toString();
+            }));
+        }
+
+        long deadline = downstreamCallService.deadline();
+        for (Future<String> future : futures) {
+            assertTrue(downstreamCallService.await(future, deadline, "test").startsWith("VirtualThread"));
+        }
+        assertTrue(maxRunning.get() <= 2);
+        downstreamCallService.shutdown();
+    }
+
+    /**
+     * Test that a call is cancelled when it misses the deadline.
+     */
+    @Test
+    public void testTimeout() {
+        DownstreamCallService downstreamCallService = new DownstreamCallService(4, 16, 100, false);
+
+        Future<String> future = downstreamCallService.submit(() -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "late";
+        });
+
+        // Check that an exception is thrown with status code 504
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> downstreamCallService.await(future, downstreamCallService.deadline(), "test"));
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exception.getStatusCode());
+        assertTrue(future.isCancelled());
+        downstreamCallService.shutdown();
+    }
+
+    /**
+     * Test that a call is rejected with 503 when the pool and its queue are full, instead of running on the calling thread.
+     *
+     * @throws Exception If an error occurs
+     */
+    @Test
+    public void testRejectWhenSaturated() throws Exception {
+        DownstreamCallService downstreamCallService = new DownstreamCallService(1, 1, 1000, false);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> blockingCall = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "value";
+        };
+
+        Future<String> running = downstreamCallService.submit(blockingCall);
+        Future<String> queued = downstreamCallService.submit(blockingCall);
+
+        // Check that an exception is thrown with status code 503
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> downstreamCallService.submit(() -> Thread.currentThread().getName()));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+
+        release.countDown();
+        assertEquals("value", downstreamCallService.await(running, downstreamCallService.deadline(), "test"));
+        assertEquals("value", downstreamCallService.await(queued, downstreamCallService.deadline(), "test"));
+        downstreamCallService.shutdown();
+    }
+}
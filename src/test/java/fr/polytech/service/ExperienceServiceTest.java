@@ -1,32 +1,70 @@
 package fr.polytech.service;
 
-import fr.polytech.model.Experience;
-import fr.polytech.model.ExperienceDTO;
+import fr.polytech.model.*;
 import fr.polytech.repository.ExperienceRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Mono;
 
-import java.util.Calendar;
-import java.util.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest
 @ActiveProfiles("test")
 public class ExperienceServiceTest {
 
-    @Autowired
+    @SpyBean
     private ExperienceRepository experienceRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private ExperienceService experienceService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private CompanyService companyService;
+
+    @MockBean
+    private JobCategoryService jobCategoryService;
+
+    /**
+     * Empty the database before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        experienceRepository.deleteAll();
+    }
+
     /**
      * Test that the method returns a list of experiences.
      */
@@ -40,6 +78,133 @@ public class ExperienceServiceTest {
         assertEquals(2, result.size());
     }
 
+    /**
+     * Test that the method returns every experience exactly once when following the cursors.
+     */
+    @Test
+    public void testGetExperiencesPage() {
+        for (int i = 0; i < 5; i++) {
+            experienceRepository.save(new Experience());
+        }
+
+        List<Experience> firstPage = experienceService.getExperiencesPage(null, 2);
+        List<Experience> secondPage = experienceService.getExperiencesPage(firstPage.get(1).getId(), 2);
+        List<Experience> lastPage = experienceService.getExperiencesPage(secondPage.get(1).getId(), 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(2, secondPage.size());
+        assertEquals(1, lastPage.size());
+        Set<UUID> ids = new HashSet<>();
+        Stream.of(firstPage, secondPage, lastPage).flatMap(List::stream).forEach(experience -> ids.add(experience.getId()));
+        assertEquals(5, ids.size());
+        assertTrue(experienceService.getExperiencesPage(lastPage.get(0).getId(), 2).isEmpty());
+    }
+
+    /**
+     * Test that the method only returns the selected fields of the experiences, following the cursor.
+     */
+    @Test
+    public void testGetExperienceFieldsPage() {
+        for (int i = 0; i < 3; i++) {
+            experienceRepository.save(newExperience());
+        }
+        Set<ExperienceField> fields = ExperienceField.parse("jobTitle,startDate");
+
+        List<Map<String, Object>> firstPage = experienceService.getExperienceFieldsPage(null, 2, fields);
+        List<Map<String, Object>> lastPage = experienceService.getExperienceFieldsPage((UUID) firstPage.get(1).get("id"), 2, fields);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(1, lastPage.size());
+        assertEquals(List.of("id", "jobTitle", "startDate"), new ArrayList<>(firstPage.get(0).keySet()));
+        assertEquals("jobTitle", firstPage.get(0).get("jobTitle"));
+    }
+
+    /**
+     * Test that the method returns the selected fields of the experiences of a company, most recent first.
+     */
+    @Test
+    public void testGetExperienceFieldsByCompanyId() {
+        Experience older = newExperience();
+        older.setStartDate(LocalDate.EPOCH);
+        older = experienceRepository.save(older);
+        Experience newer = newExperience();
+        newer.setCompanyId(older.getCompanyId());
+        newer = experienceRepository.save(newer);
+
+        List<Map<String, Object>> result = experienceService.getExperienceFieldsByCompanyId(older.getCompanyId(), null, null, ExperienceField.parse("companyId"));
+
+        assertEquals(2, result.size());
+        assertEquals(newer.getId(), result.get(0).get("id"));
+        assertEquals(older.getCompanyId(), result.get(1).get("companyId"));
+    }
+
+    /**
+     * Test that the method throws an exception when the page size is not valid.
+     */
+    @Test
+    public void testGetExperiencesPageWithInvalidSize() {
+        // Check that an exception is thrown with status code 400
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> experienceService.getExperiencesPage(null, 0));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    /**
+     * Test that the method returns the experiences of a company, most recent first.
+     */
+    @Test
+    public void testGetExperiencesByCompanyId() {
+        Experience older = newExperience();
+        older.setStartDate(LocalDate.EPOCH);
+        older = experienceRepository.save(older);
+        Experience newer = newExperience();
+        newer.setCompanyId(older.getCompanyId());
+        newer = experienceRepository.save(newer);
+        experienceRepository.save(newExperience());
+
+        List<Experience> result = experienceService.getExperiencesByCompanyId(older.getCompanyId(), null, null);
+        assertEquals(2, result.size());
+        assertEquals(newer.getId(), result.get(0).getId());
+        assertEquals(older.getId(), result.get(1).getId());
+
+        assertEquals(1, experienceService.getExperiencesByCompanyId(older.getCompanyId(), 1, 1).size());
+    }
+
+    /**
+     * Test that the method returns the experiences of a job category.
+     */
+    @Test
+    public void testGetExperiencesByJobCategoryId() {
+        Experience saved = experienceRepository.save(newExperience());
+        experienceRepository.save(newExperience());
+
+        List<Experience> result = experienceService.getExperiencesByJobCategoryId(saved.getJobCategoryId(), 0, 10);
+        assertEquals(1, result.size());
+        assertEquals(saved.getId(), result.get(0).getId());
+    }
+
+    /**
+     * Test that the method throws an exception when the page number is not valid.
+     */
+    @Test
+    public void testGetExperiencesByJobCategoryIdWithInvalidPage() {
+        // Check that an exception is thrown with status code 400
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> experienceService.getExperiencesByJobCategoryId(UUID.randomUUID(), -1, null));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    /**
+     * Test that the method streams all experiences.
+     */
+    @Test
+    public void testStreamAllExperiences() {
+        experienceRepository.save(new Experience());
+        experienceRepository.save(new Experience());
+
+        List<Experience> result = new ArrayList<>();
+        experienceService.streamAllExperiences(result::add);
+        assertEquals(2, result.size());
+    }
+
     /**
      * Test that the method returns an experience.
      */
@@ -69,13 +234,10 @@ public class ExperienceServiceTest {
     public void testCreateExperience() {
         ExperienceDTO experience = new ExperienceDTO();
         experience.setCompanyId(UUID.randomUUID());
-        experience.setStartDate(new Date());
+        experience.setStartDate(LocalDate.now());
         experience.setJobCategoryId(UUID.randomUUID());
-        // Set the end date to one second after the start date
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(experience.getStartDate());
-        calendar.add(Calendar.SECOND, 1);
-        experience.setEndDate(calendar.getTime());
+        // Set the end date to one day after the start date
+        experience.setEndDate(experience.getStartDate().plusDays(1));
         experience.setJobTitle("jobTitle");
 
         Experience result = experienceService.createExperience(experience);
@@ -91,13 +253,10 @@ public class ExperienceServiceTest {
     public void testCreateExperienceWithEndDateBeforeStartDate() {
         ExperienceDTO experience = new ExperienceDTO();
         experience.setCompanyId(UUID.randomUUID());
-        experience.setStartDate(new Date());
+        experience.setStartDate(LocalDate.now());
         experience.setJobCategoryId(UUID.randomUUID());
-        // Set the end date to one second before the start date
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(experience.getStartDate());
-        calendar.add(Calendar.SECOND, -1);
-        experience.setEndDate(calendar.getTime());
+        // Set the end date to one day before the start date
+        experience.setEndDate(experience.getStartDate().minusDays(1));
         experience.setJobTitle("jobTitle");
 
         // Check that an exception is thrown with status code 400
@@ -112,7 +271,7 @@ public class ExperienceServiceTest {
     public void testCreateExperienceWithMissingAttributes() {
         ExperienceDTO experience = new ExperienceDTO();
         experience.setCompanyId(UUID.randomUUID());
-        experience.setStartDate(new Date());
+        experience.setStartDate(LocalDate.now());
         experience.setJobCategoryId(UUID.randomUUID());
         experience.setJobTitle("jobTitle");
 
@@ -131,13 +290,10 @@ public class ExperienceServiceTest {
         ExperienceDTO experience = new ExperienceDTO();
         experience.setId(savedExperience.getId());
         experience.setCompanyId(UUID.randomUUID());
-        experience.setStartDate(new Date());
+        experience.setStartDate(LocalDate.now());
         experience.setJobCategoryId(UUID.randomUUID());
-        // Set the end date to one second after the start date
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(experience.getStartDate());
-        calendar.add(Calendar.SECOND, 1);
-        experience.setEndDate(calendar.getTime());
+        // Set the end date to one day after the start date
+        experience.setEndDate(experience.getStartDate().plusDays(1));
         experience.setJobTitle("jobTitle");
 
         Experience result = experienceService.updateExperience(experience);
@@ -155,13 +311,10 @@ public class ExperienceServiceTest {
         ExperienceDTO experience = new ExperienceDTO();
         experience.setId(savedExperience.getId());
         experience.setCompanyId(UUID.randomUUID());
-        experience.setStartDate(new Date());
+        experience.setStartDate(LocalDate.now());
         experience.setJobCategoryId(UUID.randomUUID());
-        // Set the end date to one second before the start date
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(experience.getStartDate());
-        calendar.add(Calendar.SECOND, -1);
-        experience.setEndDate(calendar.getTime());
+        // Set the end date to one day before the start date
+        experience.setEndDate(experience.getStartDate().minusDays(1));
         experience.setJobTitle("jobTitle");
 
         // Check that an exception is thrown with status code 400
@@ -179,7 +332,7 @@ public class ExperienceServiceTest {
         ExperienceDTO experience = new ExperienceDTO();
         experience.setId(savedExperience.getId());
         experience.setCompanyId(UUID.randomUUID());
-        experience.setStartDate(new Date());
+        experience.setStartDate(LocalDate.now());
         experience.setJobCategoryId(UUID.randomUUID());
         experience.setJobTitle("jobTitle");
 
@@ -196,13 +349,10 @@ public class ExperienceServiceTest {
         ExperienceDTO experience = new ExperienceDTO();
         experience.setId(UUID.randomUUID());
         experience.setCompanyId(UUID.randomUUID());
-        experience.setStartDate(new Date());
+        experience.setStartDate(LocalDate.now());
         experience.setJobCategoryId(UUID.randomUUID());
-        // Set the end date to one second after the start date
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(experience.getStartDate());
-        calendar.add(Calendar.SECOND, 1);
-        experience.setEndDate(calendar.getTime());
+        // Set the end date to one day after the start date
+        experience.setEndDate(experience.getStartDate().plusDays(1));
         experience.setJobTitle("jobTitle");
 
         // Check that an exception is thrown with status code 404
@@ -210,6 +360,149 @@ public class ExperienceServiceTest {
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
     }
 
+    /**
+     * Test that the method creates the valid experiences and reports the invalid ones.
+     */
+    @Test
+    public void testCreateExperiences() {
+        List<ExperienceDTO> experiences = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            experiences.add(newExperienceDTO(null));
+        }
+        experiences.get(60).setJobTitle(null);
+
+        List<ExperienceBatchResultDTO> results = experienceService.createExperiences(experiences);
+
+        assertEquals(120, results.size());
+        assertEquals(HttpStatus.BAD_REQUEST.value(), results.get(60).getStatus());
+        assertNull(results.get(60).getExperience());
+        assertEquals(HttpStatus.OK.value(), results.get(119).getStatus());
+        assertEquals(119, results.get(119).getIndex());
+        assertTrue(experienceRepository.existsById(results.get(119).getExperience().getId()));
+        assertEquals(119, experienceRepository.count());
+    }
+
+    /**
+     * Test that the method updates the known experiences and reports the unknown ones.
+     */
+    @Test
+    public void testUpdateExperiences() {
+        Experience savedExperience = experienceRepository.save(new Experience());
+        List<ExperienceDTO> experiences = List.of(newExperienceDTO(UUID.randomUUID()), newExperienceDTO(savedExperience.getId()));
+
+        List<ExperienceBatchResultDTO> results = experienceService.updateExperiences(experiences);
+
+        assertEquals(HttpStatus.NOT_FOUND.value(), results.get(0).getStatus());
+        assertEquals(HttpStatus.OK.value(), results.get(1).getStatus());
+        assertEquals("jobTitle", experienceRepository.findById(savedExperience.getId()).orElseThrow().getJobTitle());
+    }
+
+    /**
+     * Test that the method reports an outdated version with 409 and does not update the experience.
+     */
+    @Test
+    public void testUpdateExperiencesWithOutdatedVersion() {
+        Experience savedExperience = experienceRepository.save(new Experience());
+        ExperienceDTO experience = newExperienceDTO(savedExperience.getId());
+        experience.setVersion(savedExperience.getVersion() + 1);
+
+        List<ExperienceBatchResultDTO> results = experienceService.updateExperiences(List.of(experience));
+
+        assertEquals(HttpStatus.CONFLICT.value(), results.get(0).getStatus());
+        assertNull(results.get(0).getExperience());
+        assertNull(experienceRepository.findById(savedExperience.getId()).orElseThrow().getJobTitle());
+    }
+
+    /**
+     * Test that an experience modified between its load and the flush of its chunk fails the whole batch with 409.
+     */
+    @Test
+    public void testUpdateExperiencesModifiedBeforeFlush() {
+        Experience savedExperience = experienceRepository.save(new Experience());
+        Experience otherExperience = experienceRepository.save(new Experience());
+        ExperienceDTO experience = newExperienceDTO(savedExperience.getId());
+        experience.setVersion(savedExperience.getVersion());
+        // Another writer commits a new version of the experience once it has been loaded and checked
+        willAnswer(invocation -> {
+            jdbcTemplate.update("UPDATE experience SET version = version + 1 WHERE id = ?", savedExperience.getId());
+            // The repository is a proxy, its spy delegates to it instead of calling a real method
+            return mockingDetails(experienceRepository).getMockCreationSettings().getDefaultAnswer().answer(invocation);
+        }).given(experienceRepository).saveAll(anyIterable());
+
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> experienceService.updateExperiences(List.of(experience, newExperienceDTO(otherExperience.getId()))));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertNull(experienceRepository.findById(otherExperience.getId()).orElseThrow().getJobTitle());
+    }
+
+    /**
+     * Test that the method rejects an experience whose id appears earlier in the batch.
+     */
+    @Test
+    public void testUpdateExperiencesWithDuplicateId() {
+        Experience savedExperience = experienceRepository.save(new Experience());
+        ExperienceDTO duplicate = newExperienceDTO(savedExperience.getId());
+        duplicate.setJobTitle("duplicate");
+        List<ExperienceDTO> experiences = List.of(newExperienceDTO(savedExperience.getId()), duplicate);
+
+        List<ExperienceBatchResultDTO> results = experienceService.updateExperiences(experiences);
+
+        assertEquals(HttpStatus.OK.value(), results.get(0).getStatus());
+        assertEquals(HttpStatus.BAD_REQUEST.value(), results.get(1).getStatus());
+        assertEquals("jobTitle", experienceRepository.findById(savedExperience.getId()).orElseThrow().getJobTitle());
+    }
+
+    /**
+     * Test that the method throws an exception when the batch is empty.
+     */
+    @Test
+    public void testCreateExperiencesWithEmptyBatch() {
+        // Check that an exception is thrown with status code 400
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> experienceService.createExperiences(List.of()));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    /**
+     * Test that the method updates an experience that still has the expected version.
+     */
+    @Test
+    public void testUpdateExperienceWithVersion() {
+        Experience savedExperience = experienceRepository.save(new Experience());
+
+        ExperienceDTO experience = newExperienceDTO(savedExperience.getId());
+        experience.setVersion(savedExperience.getVersion());
+
+        Experience result = experienceService.updateExperience(experience);
+        assertEquals(savedExperience.getVersion() + 1, result.getVersion());
+        assertEquals(result.getVersion(), experienceRepository.findById(savedExperience.getId()).orElseThrow().getVersion());
+    }
+
+    /**
+     * Test that the method returns the new version of the experience when the update has no version.
+     */
+    @Test
+    public void testUpdateExperienceWithoutVersion() {
+        Experience savedExperience = experienceRepository.save(new Experience());
+
+        Experience result = experienceService.updateExperience(newExperienceDTO(savedExperience.getId()));
+        assertEquals(savedExperience.getVersion() + 1, result.getVersion());
+    }
+
+    /**
+     * Test that the method throws an exception when the experience was modified since it was read.
+     */
+    @Test
+    public void testUpdateExperienceWithOutdatedVersion() {
+        Experience savedExperience = experienceRepository.save(new Experience());
+        experienceService.updateExperience(newExperienceDTO(savedExperience.getId()));
+
+        ExperienceDTO experience = newExperienceDTO(savedExperience.getId());
+        experience.setVersion(savedExperience.getVersion());
+
+        // Check that an exception is thrown with status code 409
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> experienceService.updateExperience(experience));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    }
+
     /**
      * Test that the method deletes an experience.
      */
@@ -222,4 +515,262 @@ public class ExperienceServiceTest {
         assertFalse(experienceRepository.existsById(savedExperience.getId()));
     }
 
+    /**
+     * Test that the service methods are timed and that the rows read by the repository are counted.
+     */
+    @Test
+    public void testServiceAndRepositoryMetrics() {
+        Experience savedExperience = experienceRepository.save(newExperience());
+        experienceRepository.save(newExperience());
+
+        experienceService.getExperienceById(savedExperience.getId());
+        experienceService.getExperiencesPage(null, 10);
+
+        assertTrue(meterRegistry.get("experience.service").tag("method", "getExperienceById").tag("exception", "none").timer().count() >= 1);
+        DistributionSummary pageRows = meterRegistry.get("experience.repository.rows").tag("repository", "ExperienceRepository").tag("method", "findAllByOrderByIdAsc").summary();
+        assertTrue(pageRows.count() >= 1);
+        assertEquals(2, pageRows.max());
+    }
+
+    /**
+     * Test that the method looks up the company and the job category concurrently.
+     */
+    @Test
+    public void testGetDetailedExperienceById() {
+        Experience savedExperience = experienceRepository.save(newExperience());
+        CompanyDTO company = new CompanyDTO();
+        company.setId(savedExperience.getCompanyId());
+        JobCategoryDTO jobCategory = new JobCategoryDTO();
+        jobCategory.setId(savedExperience.getJobCategoryId());
+        given(companyService.getCompanyById(any(), any())).willAnswer(invocation -> {
+            Thread.sleep(300);
+            return company;
+        });
+        given(jobCategoryService.getJobCategoryById(any(), any())).willAnswer(invocation -> {
+            Thread.sleep(300);
+            return jobCategory;
+        });
+
+        long start = System.nanoTime();
+        DetailedExperienceDTO result = experienceService.getDetailedExperienceById(savedExperience.getId(), "Bearer token");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(savedExperience.getId(), result.getId());
+        assertEquals(company.getId(), result.getCompany().getId());
+        assertEquals(jobCategory.getId(), result.getJobCategory().getId());
+        assertTrue(elapsedMillis < 550, "Lookups took " + elapsedMillis + " ms");
+        assertFalse(result.isDegraded());
+    }
+
+    /**
+     * Test that the method throws an exception when a downstream API does not answer in time.
+     */
+    @Test
+    public void testGetDetailedExperienceByIdWithTimeout() {
+        Experience savedExperience = experienceRepository.save(newExperience());
+        given(companyService.getCompanyById(any(), any())).willAnswer(invocation -> {
+            Thread.sleep(5000);
+            return new CompanyDTO();
+        });
+        given(jobCategoryService.getJobCategoryById(any(), any())).willReturn(new JobCategoryDTO());
+
+        // Check that an exception is thrown with status code 504
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> experienceService.getDetailedExperienceById(savedExperience.getId(), "Bearer token"));
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exception.getStatusCode());
+    }
+
+    /**
+     * Test that the method forwards the error of a downstream API.
+     */
+    @Test
+    public void testGetDetailedExperienceByIdWithDownstreamError() {
+        Experience savedExperience = experienceRepository.save(newExperience());
+        given(companyService.getCompanyById(any(), any())).willThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        given(jobCategoryService.getJobCategoryById(any(), any())).willReturn(new JobCategoryDTO());
+
+        // Check that an exception is thrown with status code 404
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> experienceService.getDetailedExperienceById(savedExperience.getId(), "Bearer token"));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    /**
+     * Test that the reactive method zips the company and the job category looked up concurrently.
+     */
+    @Test
+    public void testGetDetailedExperienceByIdReactive() {
+        Experience savedExperience = experienceRepository.save(newExperience());
+        CompanyDTO company = new CompanyDTO();
+        company.setId(savedExperience.getCompanyId());
+        JobCategoryDTO jobCategory = new JobCategoryDTO();
+        jobCategory.setId(savedExperience.getJobCategoryId());
+        given(companyService.getCompanyByIdReactive(any(), any())).willReturn(Mono.just(company).delayElement(Duration.ofMillis(300)));
+        given(jobCategoryService.getJobCategoryByIdReactive(any(), any())).willReturn(Mono.just(jobCategory).delayElement(Duration.ofMillis(300)));
+
+        long start = System.nanoTime();
+        DetailedExperienceDTO result = experienceService.getDetailedExperienceByIdReactive(savedExperience.getId(), "Bearer token").block();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertNotNull(result);
+        assertEquals(savedExperience.getId(), result.getId());
+        assertEquals(company.getId(), result.getCompany().getId());
+        assertEquals(jobCategory.getId(), result.getJobCategory().getId());
+        assertTrue(elapsedMillis < 550, "Lookups took " + elapsedMillis + " ms");
+        assertFalse(result.isDegraded());
+    }
+
+    /**
+     * Test that the reactive method falls back to the id of a resource when its downstream API does not answer in time.
+     */
+    @Test
+    public void testGetDetailedExperienceByIdReactiveWithTimeout() {
+        Experience savedExperience = experienceRepository.save(newExperience());
+        JobCategoryDTO jobCategory = new JobCategoryDTO();
+        jobCategory.setId(savedExperience.getJobCategoryId());
+        jobCategory.setName("jobCategory");
+        given(companyService.getCompanyByIdReactive(any(), any())).willReturn(Mono.never());
+        given(jobCategoryService.getJobCategoryByIdReactive(any(), any())).willReturn(Mono.just(jobCategory));
+
+        DetailedExperienceDTO result = experienceService.getDetailedExperienceByIdReactive(savedExperience.getId(), "Bearer token").block();
+
+        assertNotNull(result);
+        assertEquals(savedExperience.getCompanyId(), result.getCompany().getId());
+        assertNull(result.getCompany().getName());
+        assertEquals("jobCategory", result.getJobCategory().getName());
+        assertTrue(result.isDegraded());
+    }
+
+    /**
+     * Test that the reactive method forwards the client errors of a downstream API.
+     */
+    @Test
+    public void testGetDetailedExperienceByIdReactiveWithNotFound() {
+        Experience savedExperience = experienceRepository.save(newExperience());
+        given(companyService.getCompanyByIdReactive(any(), any())).willReturn(Mono.error(new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+        given(jobCategoryService.getJobCategoryByIdReactive(any(), any())).willReturn(Mono.just(new JobCategoryDTO()));
+
+        // Check that an exception is thrown with status code 404
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> experienceService.getDetailedExperienceByIdReactive(savedExperience.getId(), "Bearer token").block());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    /**
+     * Test that the method fetches each distinct company and job category once.
+     */
+    @Test
+    public void testGetDetailedExperiencesByIds() {
+        UUID companyId = UUID.randomUUID();
+        UUID jobCategoryId = UUID.randomUUID();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Experience experience = newExperience();
+            experience.setCompanyId(companyId);
+            experience.setJobCategoryId(jobCategoryId);
+            ids.add(experienceRepository.save(experience).getId());
+        }
+        ids.add(UUID.randomUUID());
+        given(companyService.getCompanyById(any(), any())).willReturn(new CompanyDTO());
+        given(jobCategoryService.getJobCategoryById(any(), any())).willReturn(new JobCategoryDTO());
+
+        List<DetailedExperienceDTO> result = experienceService.getDetailedExperiencesByIds(ids, "Bearer token");
+
+        assertEquals(3, result.size());
+        assertEquals(ids.get(0), result.get(0).getId());
+        assertEquals(ids.get(2), result.get(2).getId());
+        verify(companyService, times(1)).getCompanyById(companyId, "Bearer token");
+        verify(jobCategoryService, times(1)).getJobCategoryById(jobCategoryId, "Bearer token");
+    }
+
+    /**
+     * Test that an experience whose company is not found is skipped without failing the others.
+     */
+    @Test
+    public void testGetDetailedExperiencesByIdsWithMissingCompany() {
+        UUID missingCompanyId = UUID.randomUUID();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Experience experience = newExperience();
+            if (i == 1) {
+                experience.setCompanyId(missingCompanyId);
+            }
+            ids.add(experienceRepository.save(experience).getId());
+        }
+        given(companyService.getCompanyById(any(), any())).willReturn(new CompanyDTO());
+        given(companyService.getCompanyById(missingCompanyId, "Bearer token")).willThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        given(jobCategoryService.getJobCategoryById(any(), any())).willReturn(new JobCategoryDTO());
+
+        List<DetailedExperienceDTO> result = experienceService.getDetailedExperiencesByIds(ids, "Bearer token");
+
+        assertEquals(2, result.size());
+        assertEquals(ids.get(0), result.get(0).getId());
+        assertEquals(ids.get(2), result.get(1).getId());
+    }
+
+    /**
+     * Test that a lookup failing for another reason than a resource not found fails the whole batch.
+     */
+    @Test
+    public void testGetDetailedExperiencesByIdsWithFailedLookup() {
+        List<UUID> ids = List.of(experienceRepository.save(newExperience()).getId());
+        given(companyService.getCompanyById(any(), any())).willThrow(new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+        given(jobCategoryService.getJobCategoryById(any(), any())).willReturn(new JobCategoryDTO());
+
+        // Check that an exception is thrown with status code 503
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> experienceService.getDetailedExperiencesByIds(ids, "Bearer token"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    }
+
+    /**
+     * Test that the method throws an exception when there are too many ids.
+     */
+    @Test
+    public void testGetDetailedExperiencesByIdsWithTooManyIds() {
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(101).toList();
+
+        // Check that an exception is thrown with status code 400
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> experienceService.getDetailedExperiencesByIds(ids, "Bearer token"));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    /**
+     * Create an experience DTO with all its attributes.
+     *
+     * @param id Id of the experience
+     * @return ExperienceDTO
+     */
+    private ExperienceDTO newExperienceDTO(UUID id) {
+        ExperienceDTO experience = new ExperienceDTO();
+        experience.setId(id);
+        experience.setJobTitle("jobTitle");
+        experience.setCompanyId(UUID.randomUUID());
+        experience.setJobCategoryId(UUID.randomUUID());
+        experience.setStartDate(LocalDate.now());
+        experience.setEndDate(LocalDate.now());
+        return experience;
+    }
+
+    /**
+     * Create an experience with all its attributes.
+     *
+     * @return Experience
+     */
+    private Experience newExperience() {
+        Experience experience = new Experience();
+        experience.setJobTitle("jobTitle");
+        experience.setCompanyId(UUID.randomUUID());
+        experience.setJobCategoryId(UUID.randomUUID());
+        experience.setStartDate(LocalDate.now());
+        experience.setEndDate(LocalDate.now());
+        return experience;
+    }
+
+    /**
+     * Test that the method throws an exception when the experience to delete is not found.
+     */
+    @Test
+    public void testDeleteExperienceWithInvalidId() {
+        // Check that an exception is thrown with status code 404
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> experienceService.deleteExperience(UUID.randomUUID()));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
 }